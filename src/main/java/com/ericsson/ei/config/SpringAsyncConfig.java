@@ -22,6 +22,8 @@ import java.util.List;
 import java.util.concurrent.Executor;
 
 import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.actuate.autoconfigure.endpoint.web.CorsEndpointProperties;
@@ -43,20 +45,34 @@ import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import com.ericsson.ei.utils.VirtualThreads;
+
 @Configuration
 @EnableAsync
 public class SpringAsyncConfig implements AsyncConfigurer{
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpringAsyncConfig.class);
+
     @Value("${threads.core.pool.size}")
     private int corePoolSize;
     @Value("${threads.queue.capacity}")
     private int queueCapacity;
     @Value("${threads.max.pool.size}")
     private int maxPoolSize;
+    @Value("${threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
 
 
     @Override
     public Executor getAsyncExecutor() {
+        if (virtualThreadsEnabled) {
+            Executor virtualExecutor = VirtualThreads.newThreadPerTaskExecutor("EventHandler-");
+            if (virtualExecutor != null) {
+                LOGGER.info("Processing events on virtual threads.");
+                return virtualExecutor;
+            }
+            LOGGER.warn("Virtual threads are not supported by this JVM, using a thread pool.");
+        }
          ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
             executor.setCorePoolSize(corePoolSize);
             executor.setQueueCapacity(queueCapacity);
@@ -27,4 +27,11 @@ public interface StatusController {
     @RequestMapping(value = "", method = RequestMethod.GET)
     public ResponseEntity<?> getStatus(HttpServletRequest httpRequest);
 
+    /**
+     * Returns the indexes Eiffel Intelligence creates in MongoDB and the candidate indexes for the fields queried by the MatchIdRules of the rules.
+     * 
+     */
+    @RequestMapping(value = "/indexes", method = RequestMethod.GET)
+    public ResponseEntity<?> getIndexes(HttpServletRequest httpRequest);
+
 }
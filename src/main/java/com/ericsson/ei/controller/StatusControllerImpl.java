@@ -27,6 +27,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.CrossOrigin;
 
 import com.ericsson.ei.handlers.StatusHandler;
+import com.ericsson.ei.mongo.IndexReconciler;
 import com.ericsson.ei.utils.ResponseMessage;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -46,6 +47,9 @@ public class StatusControllerImpl implements StatusController {
     @Autowired
     private StatusHandler statusHandler;
 
+    @Autowired
+    private IndexReconciler indexReconciler;
+
     private ObjectMapper objectMapper = new ObjectMapper();
 
     @Override
@@ -64,4 +68,21 @@ public class StatusControllerImpl implements StatusController {
             return new ResponseEntity<>(jsonFormattedErrorMessage, HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
+
+    @Override
+    @CrossOrigin
+    @ApiOperation(value = "Check MongoDB indexes", tags = { "Status" }, response = String.class)
+    public ResponseEntity<?> getIndexes(HttpServletRequest httpRequest) {
+        try {
+            final JsonNode indexes = indexReconciler.getIndexReport();
+            final String indexesString = objectMapper.writerWithDefaultPrettyPrinter()
+                                                     .writeValueAsString(indexes);
+            return new ResponseEntity<>(indexesString, HttpStatus.OK);
+        } catch (Exception e) {
+            final String errorMessage = "Failed to check MongoDB indexes.";
+            LOGGER.error(errorMessage, e);
+            final String jsonFormattedErrorMessage = ResponseMessage.createJsonMessage(errorMessage);
+            return new ResponseEntity<>(jsonFormattedErrorMessage, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
 }
@@ -0,0 +1,253 @@
+/*
+   Copyright 2026 Ericsson AB.
+   For a full list of individual contributors, please see the commit history.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.ericsson.ei.handlers;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.rabbitmq.client.Channel;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Collects the acknowledgements of processed events and sends them to RabbitMQ
+ * in batches. The events of a channel are processed in parallel and finish in
+ * any order, so the coordinator keeps track of which delivery tags are settled.
+ * When all tags up to a point are settled, they are acknowledged with a single
+ * <code>basicAck(tag, multiple=true)</code>. Events that finished after an
+ * event that is still being processed are acknowledged one by one, so a slow
+ * event never holds back the acknowledgements of the events after it.
+ *
+ * <p>
+ * Acknowledgements are sent when rabbitmq.ack.batch.size events are waiting,
+ * and otherwise every rabbitmq.ack.flush.interval milliseconds. Negative
+ * acknowledgements are sent at once. A batch size of 1 sends every
+ * acknowledgement at once, like before batching was added.
+ * </p>
+ *
+ * <p>
+ * A delivery tag that is never settled would keep every later tag in memory.
+ * When more than maxTrackedTags tags are settled after such a gap, the missing
+ * tags are kept aside and the others are forgotten. Acknowledgements are then
+ * only sent together up to the first missing tag, since a multiple
+ * acknowledgement would also acknowledge it. A message that is never settled
+ * holds a prefetch slot, so few tags can be missing.
+ * </p>
+ */
+@Component
+public class AckCoordinator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AckCoordinator.class);
+
+    @Getter
+    @Setter
+    @Value("${rabbitmq.ack.batch.size:32}")
+    private int batchSize;
+
+    /** The number of settled tags after a gap that are tracked before giving up on the gap */
+    public static final int DEFAULT_MAX_TRACKED_TAGS = 10000;
+
+    @Setter
+    private int maxTrackedTags = DEFAULT_MAX_TRACKED_TAGS;
+
+    private final Map<Channel, ChannelAcks> channels = new ConcurrentHashMap<>();
+
+    /**
+     * Marks a delivery as successfully processed. The acknowledgement is sent
+     * with the next flush.
+     *
+     * @param channel     the channel the message was delivered on
+     * @param deliveryTag the delivery tag of the message
+     * @throws IOException if the acknowledgement could not be sent
+     */
+    public void ack(Channel channel, long deliveryTag) throws IOException {
+        if (batchSize <= 1) {
+            channel.basicAck(deliveryTag, false);
+            return;
+        }
+        ChannelAcks acks = getChannelAcks(channel);
+        acks.lock.lock();
+        try {
+            acks.settle(deliveryTag, true, maxTrackedTags);
+            if (acks.pendingAcks.size() >= batchSize) {
+                flush(channel, acks);
+            }
+        } finally {
+            acks.lock.unlock();
+        }
+    }
+
+    /**
+     * Sends a negative acknowledgement for a delivery at once.
+     *
+     * @param channel     the channel the message was delivered on
+     * @param deliveryTag the delivery tag of the message
+     * @param requeue     true if the message should be sent back to the queue
+     * @throws IOException if the negative acknowledgement could not be sent
+     */
+    public void nack(Channel channel, long deliveryTag, boolean requeue) throws IOException {
+        if (!channel.isOpen()) {
+            // The broker sends unacknowledged messages again on a new channel,
+            // which happens when consumption is paused while MongoDB is down
+            LOGGER.debug("Channel closed, message {} is returned to the queue by the broker.", deliveryTag);
+            return;
+        }
+        if (batchSize <= 1) {
+            channel.basicNack(deliveryTag, false, requeue);
+            return;
+        }
+        ChannelAcks acks = getChannelAcks(channel);
+        acks.lock.lock();
+        try {
+            channel.basicNack(deliveryTag, false, requeue);
+            acks.settle(deliveryTag, false, maxTrackedTags);
+        } finally {
+            acks.lock.unlock();
+        }
+    }
+
+    /**
+     * Sends all acknowledgements that are waiting.
+     */
+    @Scheduled(initialDelayString = "${rabbitmq.ack.flush.interval:20}", fixedDelayString = "${rabbitmq.ack.flush.interval:20}")
+    public void flushAll() {
+        for (Map.Entry<Channel, ChannelAcks> entry : channels.entrySet()) {
+            ChannelAcks acks = entry.getValue();
+            acks.lock.lock();
+            try {
+                flush(entry.getKey(), acks);
+            } catch (IOException e) {
+                LOGGER.error("Failed to send acknowledgements.", e);
+            } finally {
+                acks.lock.unlock();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        flushAll();
+    }
+
+    private ChannelAcks getChannelAcks(Channel channel) {
+        return channels.computeIfAbsent(channel, c -> new ChannelAcks());
+    }
+
+    private void flush(Channel channel, ChannelAcks acks) throws IOException {
+        if (!channel.isOpen()) {
+            // The broker sends unacknowledged messages again on a new channel
+            LOGGER.warn("Channel closed, dropping {} acknowledgements.", acks.pendingAcks.size());
+            channels.remove(channel, acks);
+            return;
+        }
+        long settledUpTo = acks.advance();
+        if (!acks.missing.isEmpty()) {
+            settledUpTo = Math.min(settledUpTo, acks.missing.first() - 1);
+        }
+        NavigableSet<Long> contiguous = acks.pendingAcks.headSet(settledUpTo, true);
+        if (!contiguous.isEmpty()) {
+            channel.basicAck(contiguous.last(), true);
+            contiguous.clear();
+        }
+        for (Long deliveryTag : acks.pendingAcks) {
+            channel.basicAck(deliveryTag, false);
+        }
+        acks.pendingAcks.clear();
+    }
+
+    /**
+     * The settled delivery tags of one channel. Delivery tags start at 1 and
+     * grow by one for each message delivered on the channel.
+     */
+    private static final class ChannelAcks {
+        /** Guards the state and the channel calls */
+        private final ReentrantLock lock = new ReentrantLock();
+        /** All tags up to this one are settled and their acknowledgements sent */
+        private long base;
+        /** Settled tags after base */
+        private final NavigableSet<Long> settled = new TreeSet<>();
+        /** Settled tags waiting for their acknowledgement */
+        private final NavigableSet<Long> pendingAcks = new TreeSet<>();
+        /** Tags up to base that were not settled when their gap was given up */
+        private final NavigableSet<Long> missing = new TreeSet<>();
+
+        private void settle(long deliveryTag, boolean ack, int maxTrackedTags) {
+            if (missing.remove(deliveryTag)) {
+                if (ack) {
+                    pendingAcks.add(deliveryTag);
+                }
+                return;
+            }
+            if (deliveryTag <= base || settled.contains(deliveryTag)) {
+                // The channel has been reused with restarted delivery tags
+                base = deliveryTag - 1;
+                settled.clear();
+                pendingAcks.clear();
+                missing.clear();
+            }
+            settled.add(deliveryTag);
+            if (ack) {
+                pendingAcks.add(deliveryTag);
+            }
+            if (settled.size() > maxTrackedTags) {
+                giveUpGaps();
+            }
+        }
+
+        /**
+         * Moves base to the last settled tag and keeps the tags that were
+         * skipped over in missing.
+         */
+        private void giveUpGaps() {
+            long last = settled.last();
+            for (long tag = base + 1; tag < last; tag++) {
+                if (!settled.contains(tag)) {
+                    missing.add(tag);
+                }
+            }
+            LOGGER.warn("{} delivery tags have not been settled, acknowledging the messages after them one by one.",
+                    missing.size());
+            base = last;
+            settled.clear();
+        }
+
+        /**
+         * Moves base over the settled tags following it.
+         *
+         * @return the highest tag such that all tags up to it are settled
+         */
+        private long advance() {
+            while (!settled.isEmpty() && settled.first() == base + 1) {
+                base = settled.pollFirst();
+            }
+            return base;
+        }
+    }
+}
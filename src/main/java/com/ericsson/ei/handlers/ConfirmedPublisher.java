@@ -0,0 +1,283 @@
+/*
+   Copyright 2026 Ericsson AB.
+   For a full list of individual contributors, please see the commit history.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.ericsson.ei.handlers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.support.DefaultMessagePropertiesConverter;
+import org.springframework.amqp.rabbit.support.MessagePropertiesConverter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.ConfirmListener;
+import com.rabbitmq.client.ReturnListener;
+import com.rabbitmq.client.ShutdownListener;
+import com.rabbitmq.client.ShutdownSignalException;
+
+import lombok.Setter;
+
+/**
+ * Moves delivered messages by publishing a copy of them on the channel they
+ * were delivered on. The original message is acknowledged when the broker has
+ * taken responsibility for the copy, so it can not be lost, and is sent back to
+ * its queue otherwise. Copies are published as mandatory, so a copy that no
+ * queue receives is returned by the broker and counts as not published.
+ *
+ * <p>
+ * The caller does not wait for the broker. The confirms of each channel are
+ * tracked by their publish sequence numbers, and the original message is
+ * settled when the confirm of its copy arrives, or when none has arrived within
+ * rabbitmq.publish.confirm.timeout milliseconds.
+ * </p>
+ */
+@Component
+public class ConfirmedPublisher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConfirmedPublisher.class);
+
+    public static final String PUBLISH_ID_HEADER = "x-ei-publish-id";
+
+    private final MessagePropertiesConverter propertiesConverter = new DefaultMessagePropertiesConverter();
+
+    @Setter
+    @Value("${rabbitmq.publish.confirm.timeout:5000}")
+    private long confirmTimeout;
+
+    @Setter
+    @Autowired
+    private AckCoordinator ackCoordinator;
+
+    private final Map<Channel, ChannelConfirms> channels = new WeakHashMap<>();
+    /** Guards channels */
+    private final ReentrantLock channelsLock = new ReentrantLock();
+
+    /**
+     * Publishes a persistent copy of a delivered message and acknowledges the
+     * delivered message when the broker has confirmed the copy. If the copy
+     * could not be published, is nacked, is returned or is not confirmed in
+     * time, the delivered message is sent back to its queue.
+     *
+     * @param message    the delivered message, with the headers of the copy set
+     * @param channel    the channel the message was delivered on
+     * @param exchange   the exchange, empty for the default exchange
+     * @param routingKey the routing key
+     */
+    public void publishCopy(Message message, Channel channel, String exchange, String routingKey) {
+        MessageProperties properties = message.getMessageProperties();
+        long deliveryTag = properties.getDeliveryTag();
+        CompletableFuture<Boolean> confirmed;
+        try {
+            properties.setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+            AMQP.BasicProperties basicProperties = propertiesConverter.fromMessageProperties(properties,
+                    StandardCharsets.UTF_8.name());
+            confirmed = publish(channel, exchange, routingKey, basicProperties, message.getBody());
+        } catch (IOException | RuntimeException e) {
+            confirmed = CompletableFuture.failedFuture(e);
+        }
+        confirmed.whenComplete((ack, error) -> settle(channel, deliveryTag, exchange, routingKey,
+                Boolean.TRUE.equals(ack), error));
+    }
+
+    private void settle(Channel channel, long deliveryTag, String exchange, String routingKey, boolean ack,
+            Throwable error) {
+        try {
+            if (ack) {
+                LOGGER.debug("Moved event to exchange '{}' with routing key '{}'.", exchange, routingKey);
+                ackCoordinator.ack(channel, deliveryTag);
+                return;
+            }
+            if (error instanceof TimeoutException) {
+                LOGGER.error("No confirm received within {} milliseconds for event to exchange '{}' with routing "
+                        + "key '{}', sending it back to the queue.", confirmTimeout, exchange, routingKey);
+            } else if (error != null) {
+                LOGGER.error("Failed to publish event to exchange '{}' with routing key '{}', sending it back to "
+                        + "the queue.", exchange, routingKey, error);
+            } else {
+                LOGGER.error("Event was not accepted by exchange '{}' with routing key '{}', sending it back to "
+                        + "the queue.", exchange, routingKey);
+            }
+            ackCoordinator.nack(channel, deliveryTag, true);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("Failed to settle message {}.", deliveryTag, e);
+        }
+    }
+
+    private CompletableFuture<Boolean> publish(Channel channel, String exchange, String routingKey,
+            AMQP.BasicProperties properties, byte[] body) throws IOException {
+        ChannelConfirms confirms = prepare(channel);
+        String publishId = UUID.randomUUID().toString();
+        Map<String, Object> headers = properties.getHeaders() != null ? new HashMap<>(properties.getHeaders())
+                : new HashMap<>();
+        headers.put(PUBLISH_ID_HEADER, publishId);
+        PendingConfirm pending = new PendingConfirm(publishId, exchange, routingKey);
+        // The sequence number must be the one of this publish, so no other
+        // message may be published on the channel in between
+        confirms.publishLock.lock();
+        try {
+            long sequenceNumber = channel.getNextPublishSeqNo();
+            confirms.add(sequenceNumber, pending);
+            try {
+                channel.basicPublish(exchange, routingKey, true, properties.builder().headers(headers).build(), body);
+            } catch (IOException | RuntimeException e) {
+                confirms.remove(sequenceNumber, pending);
+                throw e;
+            }
+            pending.future.whenComplete((ack, error) -> confirms.remove(sequenceNumber, pending));
+        } finally {
+            confirms.publishLock.unlock();
+        }
+        return pending.future.orTimeout(confirmTimeout, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Puts the channel in confirm mode, unless the connection factory already
+     * did, and listens for confirms, returned messages and the closing of the
+     * channel.
+     */
+    private ChannelConfirms prepare(Channel channel) throws IOException {
+        channelsLock.lock();
+        try {
+            ChannelConfirms confirms = channels.get(channel);
+            if (confirms == null) {
+                if (channel.getNextPublishSeqNo() == 0) {
+                    channel.confirmSelect();
+                }
+                confirms = new ChannelConfirms();
+                channel.addConfirmListener(confirms);
+                channel.addReturnListener(confirms);
+                channel.addShutdownListener(confirms);
+                channels.put(channel, confirms);
+            }
+            return confirms;
+        } finally {
+            channelsLock.unlock();
+        }
+    }
+
+    /**
+     * The copies published on one channel that wait for their confirm, by
+     * publish sequence number and by the publish id in their headers.
+     */
+    private static final class ChannelConfirms implements ConfirmListener, ReturnListener, ShutdownListener {
+        /** Guards the sequence number and the publish on the channel */
+        private final ReentrantLock publishLock = new ReentrantLock();
+        private final ConcurrentNavigableMap<Long, PendingConfirm> bySequenceNumber = new ConcurrentSkipListMap<>();
+        private final Map<String, PendingConfirm> byPublishId = new ConcurrentHashMap<>();
+
+        private void add(long sequenceNumber, PendingConfirm pending) {
+            bySequenceNumber.put(sequenceNumber, pending);
+            byPublishId.put(pending.publishId, pending);
+        }
+
+        private void remove(long sequenceNumber, PendingConfirm pending) {
+            bySequenceNumber.remove(sequenceNumber, pending);
+            byPublishId.remove(pending.publishId, pending);
+        }
+
+        @Override
+        public void handleAck(long deliveryTag, boolean multiple) {
+            confirm(deliveryTag, multiple, true);
+        }
+
+        @Override
+        public void handleNack(long deliveryTag, boolean multiple) {
+            confirm(deliveryTag, multiple, false);
+        }
+
+        private void confirm(long deliveryTag, boolean multiple, boolean ack) {
+            Map<Long, PendingConfirm> confirmed = multiple ? bySequenceNumber.headMap(deliveryTag, true)
+                    : bySequenceNumber.subMap(deliveryTag, true, deliveryTag, true);
+            Iterator<PendingConfirm> iterator = confirmed.values().iterator();
+            while (iterator.hasNext()) {
+                PendingConfirm pending = iterator.next();
+                iterator.remove();
+                pending.complete(ack);
+            }
+        }
+
+        /**
+         * The broker returns an unroutable message before it confirms it.
+         */
+        @Override
+        public void handleReturn(int replyCode, String replyText, String exchange, String routingKey,
+                AMQP.BasicProperties properties, byte[] body) {
+            Map<String, Object> headers = properties.getHeaders();
+            Object publishId = headers != null ? headers.get(PUBLISH_ID_HEADER) : null;
+            PendingConfirm pending = publishId != null ? byPublishId.get(publishId.toString()) : null;
+            if (pending != null) {
+                pending.returned = true;
+            }
+        }
+
+        /**
+         * Confirms never arrive on a closed channel. The broker sends the
+         * delivered messages again on a new channel, whatever is done with them.
+         */
+        @Override
+        public void shutdownCompleted(ShutdownSignalException cause) {
+            Iterator<PendingConfirm> iterator = bySequenceNumber.values().iterator();
+            while (iterator.hasNext()) {
+                PendingConfirm pending = iterator.next();
+                iterator.remove();
+                pending.complete(false);
+            }
+        }
+    }
+
+    private static final class PendingConfirm {
+        private final String publishId;
+        private final String exchange;
+        private final String routingKey;
+        private final CompletableFuture<Boolean> future = new CompletableFuture<>();
+        private volatile boolean returned;
+
+        private PendingConfirm(String publishId, String exchange, String routingKey) {
+            this.publishId = publishId;
+            this.exchange = exchange;
+            this.routingKey = routingKey;
+        }
+
+        private void complete(boolean ack) {
+            if (ack && returned) {
+                LOGGER.warn("Message to exchange '{}' with routing key '{}' was not routed to any queue.", exchange,
+                        routingKey);
+            }
+            future.complete(ack && !returned);
+        }
+    }
+}
@@ -29,6 +29,8 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mongodb.MongoExecutionTimeoutException;
 
+import io.burt.jmespath.Expression;
+
 @Component
 public class DownstreamExtractionHandler {
 
@@ -64,6 +66,10 @@ public class DownstreamExtractionHandler {
 
     private JsonNode extractContent(RulesObject rulesObject, String event) {
         String extractionRules = rulesObject.getDownstreamExtractionRules();
+        Expression<JsonNode> expression = rulesObject.getDownstreamExtractionRulesExpression();
+        if (expression != null) {
+            return jmesPathInterface.runExpressionOnEvent(expression, event);
+        }
         return jmesPathInterface.runRuleOnEvent(extractionRules, event);
     }
 }
@@ -30,6 +30,8 @@ import com.ericsson.ei.rules.RulesObject;
 import com.ericsson.ei.waitlist.WaitListStorageHandler;
 import com.fasterxml.jackson.databind.JsonNode;
 
+import io.burt.jmespath.Expression;
+
 @Component
 public class DownstreamIdRulesHandler {
 
@@ -77,7 +79,9 @@ public class DownstreamIdRulesHandler {
         JsonNode ids = null;
         if (idRule != null && !idRule.isEmpty()) {
             try {
-                ids = jmesPathInterface.runRuleOnEvent(idRule, event);
+                Expression<JsonNode> expression = rulesObject.getDownstreamIdentifyRulesExpression();
+                ids = expression != null ? jmesPathInterface.runExpressionOnEvent(expression, event)
+                        : jmesPathInterface.runRuleOnEvent(idRule, event);
             } catch (Exception e) {
                 LOGGER.info("Failed to get ID from event.", e);
             }
@@ -0,0 +1,249 @@
+/*
+   Copyright 2026 Ericsson AB.
+   For a full list of individual contributors, please see the commit history.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.ericsson.ei.handlers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ericsson.ei.jmespath.JmesPathInterface;
+import com.ericsson.ei.rules.RulesObject;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.burt.jmespath.Expression;
+
+/**
+ * Holds an event while it is processed by Eiffel Intelligence. The event is
+ * parsed at most once and the same tree is handed to every rule that is run on
+ * it, while the original text or message body is kept for storage and logging.
+ *
+ * The results of the rules run on the event are remembered, so a rule that is
+ * needed by several handlers, like IdRule, is only evaluated once per event.
+ *
+ * The parsed tree and the rule results are shared between the handlers and
+ * must not be modified.
+ */
+public final class EventContext {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventContext.class);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private volatile String eventText;
+    private final byte[] eventBytes;
+    private volatile JsonNode eventJson;
+    private volatile boolean parsed;
+    private volatile RulesObject rulesObject;
+    private volatile boolean waitListed;
+    private final Map<String, JsonNode> ruleResults = new ConcurrentHashMap<>();
+
+    private EventContext(String eventText, byte[] eventBytes, JsonNode eventJson, boolean parsed) {
+        this.eventText = eventText;
+        this.eventBytes = eventBytes;
+        this.eventJson = eventJson;
+        this.parsed = parsed;
+    }
+
+    /**
+     * Creates a context from an event string. The string is parsed the first time
+     * the tree is requested.
+     *
+     * @param event the event as a JSON string
+     * @return event context
+     */
+    public static EventContext fromString(String event) {
+        return new EventContext(event, null, null, false);
+    }
+
+    /**
+     * Creates a context from an already parsed event.
+     *
+     * @param event the parsed event
+     * @return event context
+     */
+    public static EventContext fromJson(JsonNode event) {
+        return new EventContext(null, null, event, true);
+    }
+
+    /**
+     * Creates a context from an event string that has already been parsed.
+     *
+     * @param event     the event as a JSON string
+     * @param eventJson the parsed event
+     * @return event context
+     */
+    public static EventContext fromJson(String event, JsonNode eventJson) {
+        return new EventContext(event, null, eventJson, true);
+    }
+
+    /**
+     * Creates a context from the body of a message, which is parsed directly as
+     * UTF-8 without first being decoded to a string. The string is only decoded
+     * from the body if it is requested.
+     *
+     * @param body the event as UTF-8 encoded JSON
+     * @return event context
+     * @throws IOException if the body is not valid JSON
+     */
+    public static EventContext fromBytes(byte[] body) throws IOException {
+        JsonNode eventJson = OBJECT_MAPPER.readTree(body);
+        if (eventJson == null || eventJson.isMissingNode()) {
+            throw new IOException("Message body does not contain an event.");
+        }
+        return new EventContext(null, body, eventJson, true);
+    }
+
+    /**
+     * Returns the parsed event, or null if the event is missing or is not valid
+     * JSON.
+     *
+     * @return the event tree
+     */
+    public JsonNode getEventJson() {
+        if (!parsed) {
+            eventJson = parse(eventText);
+            parsed = true;
+        }
+        return eventJson;
+    }
+
+    /**
+     * Returns the event as a JSON string.
+     *
+     * @return the event string
+     */
+    public String getEventText() {
+        if (eventText == null && eventBytes != null) {
+            eventText = new String(eventBytes, StandardCharsets.UTF_8);
+        } else if (eventText == null && eventJson != null) {
+            eventText = eventJson.toString();
+        }
+        return eventText;
+    }
+
+    /**
+     * Returns the value of meta.id of the event, or null if it has none.
+     *
+     * @return the event id
+     */
+    public String getEventId() {
+        JsonNode json = getEventJson();
+        if (json == null) {
+            return null;
+        }
+        return json.path("meta").path("id").textValue();
+    }
+
+    /**
+     * Returns the rules matching the event, if they have been looked up.
+     *
+     * @return the rules for the event or null
+     */
+    public RulesObject getRulesObject() {
+        return rulesObject;
+    }
+
+    public void setRulesObject(RulesObject rulesObject) {
+        this.rulesObject = rulesObject;
+    }
+
+    /**
+     * Returns true if the event has been added to the wait list, because no
+     * aggregated object it belongs to existed yet.
+     *
+     * @return true if the event is in the wait list
+     */
+    public boolean isWaitListed() {
+        return waitListed;
+    }
+
+    public void markWaitListed() {
+        this.waitListed = true;
+    }
+
+    /**
+     * Runs a JMESPath rule on the event. The result is remembered and returned
+     * directly if the same rule is run again on this event.
+     *
+     * @param rule              the JMESPath expression
+     * @param jmesPathInterface used to evaluate the rule the first time
+     * @return the result of the rule
+     */
+    public JsonNode runRule(String rule, JmesPathInterface jmesPathInterface) {
+        return getRuleResult(rule, r -> jmesPathInterface.runRuleOnJson(r, getEventJson()));
+    }
+
+    /**
+     * Runs a JMESPath rule, compiled when the rules were loaded, on the event.
+     * The result is remembered like for {@link #runRule(String, JmesPathInterface)}.
+     *
+     * @param rule              the JMESPath expression
+     * @param expression        the compiled rule, or null to compile it
+     * @param jmesPathInterface used to evaluate the rule the first time
+     * @return the result of the rule
+     */
+    public JsonNode runRule(String rule, Expression<JsonNode> expression, JmesPathInterface jmesPathInterface) {
+        if (expression == null) {
+            return runRule(rule, jmesPathInterface);
+        }
+        return getRuleResult(rule, r -> jmesPathInterface.runExpressionOnJson(expression, getEventJson()));
+    }
+
+    /**
+     * Returns the remembered result of a rule, evaluating it with the given
+     * function if it has not been evaluated on this event before.
+     *
+     * @param rule      the rule, used as key for the result
+     * @param evaluator evaluates the rule on the event
+     * @return the result of the rule
+     */
+    public JsonNode getRuleResult(String rule, Function<String, JsonNode> evaluator) {
+        if (rule == null) {
+            return evaluator.apply(rule);
+        }
+        JsonNode result = ruleResults.get(rule);
+        if (result == null) {
+            result = evaluator.apply(rule);
+            if (result != null) {
+                ruleResults.put(rule, result);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return getEventText();
+    }
+
+    private static JsonNode parse(String event) {
+        if (event == null || event.isEmpty()) {
+            return null;
+        }
+        try {
+            return OBJECT_MAPPER.readTree(event);
+        } catch (IOException e) {
+            LOGGER.error("Failed to parse event.\nEvent: {}", event, e);
+            return null;
+        }
+    }
+}
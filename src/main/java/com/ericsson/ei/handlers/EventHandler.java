@@ -22,17 +22,17 @@ import org.slf4j.LoggerFactory;
 import org.springframework.amqp.core.Message;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 import com.ericsson.ei.exception.MongoDBConnectionException;
+import com.ericsson.ei.mongo.BulkWriteBuffer;
+import com.ericsson.ei.mongo.BulkWriteBuffer.PendingWrites;
 import com.ericsson.ei.rules.IdRulesHandler;
 import com.ericsson.ei.rules.RulesHandler;
 import com.ericsson.ei.rules.RulesObject;
-import com.ericsson.ei.utils.MongoDBMonitorThread;
-import com.ericsson.ei.utils.SpringContext;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mongodb.MongoExecutionTimeoutException;
 import com.rabbitmq.client.Channel;
 
@@ -45,7 +45,16 @@ public class EventHandler {
     RulesHandler rulesHandler;
 
     @Autowired
-    MongoDBMonitorThread mongoDBMonitorThread;
+    MongoDBCircuitBreaker mongoDBCircuitBreaker;
+
+    @Autowired
+    EventRetryHandler eventRetryHandler;
+
+    @Autowired
+    ProcessedEventRegistry processedEventRegistry;
+
+    @Autowired
+    EventShardRouter eventShardRouter;
 
     @Autowired
     IdRulesHandler idRulesHandler;
@@ -56,71 +65,216 @@ public class EventHandler {
     @Autowired
     Environment environment;
 
+    @Autowired
+    AckCoordinator ackCoordinator;
+
+    @Autowired
+    EventLaneExecutor eventLaneExecutor;
+
+    @Autowired
+    BulkWriteBuffer bulkWriteBuffer;
+
     public RulesHandler getRulesHandler() {
         return rulesHandler;
     }
 
     public void eventReceived(String event, final boolean isRelivered) 
     		throws MongoDBConnectionException, Exception {
+        eventReceived(EventContext.fromString(event), isRelivered);
+    }
+
+    public void eventReceived(EventContext event, final boolean isRelivered)
+            throws MongoDBConnectionException, Exception {
         RulesObject eventRules = rulesHandler.getRulesForEvent(event);
+        event.setRulesObject(eventRules);
         idRulesHandler.runIdRules(eventRules, event, isRelivered);
     }
 
     @Async
     public void onMessage(Message message, Channel channel) throws Exception {
-        String messageBody = new String(message.getBody());
-        ObjectMapper objectMapper = new ObjectMapper();
-        JsonNode node = objectMapper.readTree(messageBody);
-        String id = node.get("meta").get("id").toString();
+        EventContext event = parseOrReject(message, channel);
+        if (event != null) {
+            processMessage(message, event, channel);
+        }
+    }
+
+    /**
+     * Sends a message back to the queue that could not be handed over for
+     * processing, so its delivery tag is settled.
+     *
+     * @param message the message from RabbitMQ
+     * @param channel the channel the message was delivered on
+     * @throws Exception if the message could not be sent back
+     */
+    public void requeue(Message message, Channel channel) throws Exception {
+        ackCoordinator.nack(channel, message.getMessageProperties().getDeliveryTag(), true);
+    }
+
+    /**
+     * Processes a message in the lane of the aggregation the event belongs to,
+     * instead of in the asynchronous executor. Events in the same lane are
+     * processed one at a time, in the order they were received.
+     *
+     * @param message the message from RabbitMQ
+     * @param channel the channel the message was delivered on
+     * @throws Exception if the message could not be rejected
+     */
+    public void onMessageInLane(Message message, Channel channel) throws Exception {
+        final EventContext event = parseOrReject(message, channel);
+        if (event == null) {
+            return;
+        }
+        try {
+            eventLaneExecutor.execute(getLaneKey(event), () -> {
+                try {
+                    processMessage(message, event, channel);
+                } catch (Exception e) {
+                    LOGGER.error("Failed to process event {}.", event.getEventId(), e);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            // The lane is full, the message must still be settled
+            LOGGER.warn("Lane is full, sending event {} back to the queue.", event.getEventId());
+            requeue(message, channel);
+        }
+    }
+
+    /**
+     * Processes a message in the calling listener thread. The listener container
+     * then only receives a new message when the previous one has been processed,
+     * so the number of events in progress is bounded by the number of consumers
+     * and their prefetch.
+     *
+     * @param message the message from RabbitMQ
+     * @param channel the channel the message was delivered on
+     * @throws Exception if the message could not be acknowledged
+     */
+    public void onMessageInListener(Message message, Channel channel) throws Exception {
+        EventContext event = parseOrReject(message, channel);
+        if (event != null) {
+            processMessage(message, event, channel);
+        }
+    }
+
+    /**
+     * Moves a message to the shard queue of the aggregation the event belongs
+     * to. The event is processed when it is received from the shard queue, by
+     * the instance consuming from that queue.
+     *
+     * @param message the message from RabbitMQ
+     * @param channel the channel the message was delivered on
+     * @throws Exception if the message could neither be moved nor rejected
+     */
+    public void onMessageToShard(Message message, Channel channel) throws Exception {
+        EventContext event = parseOrReject(message, channel);
+        if (event != null) {
+            eventShardRouter.route(message, getLaneKey(event), channel);
+        }
+    }
+
+    /**
+     * Returns the key deciding which lane an event is processed in. This is the
+     * first id given by the identify rules of the event, which events belonging
+     * to the same aggregation have in common, or the id of the event if the
+     * rules give no id.
+     *
+     * @param event the event
+     * @return the lane key
+     */
+    public String getLaneKey(EventContext event) {
+        RulesObject eventRules = rulesHandler.getRulesForEvent(event);
+        if (eventRules != null) {
+            JsonNode ids = idRulesHandler.getIds(eventRules, event);
+            if (ids != null && ids.isArray() && ids.size() > 0 && ids.get(0).isTextual()) {
+                return ids.get(0).textValue();
+            }
+        }
+        return event.getEventId();
+    }
+
+    private EventContext parseOrReject(Message message, Channel channel) throws Exception {
+        try {
+            return parseMessage(message);
+        } catch (Exception e) {
+            LOGGER.error("Event is not Re-queued since it could not be parsed.", e);
+            ackCoordinator.nack(channel, message.getMessageProperties().getDeliveryTag(), false);
+            return null;
+        }
+    }
+
+    private EventContext parseMessage(Message message) throws Exception {
+        return EventContext.fromBytes(message.getBody());
+    }
+
+    private void processMessage(Message message, EventContext event, Channel channel) throws Exception {
+        String id = null;
         final boolean isRedelivered = message.getMessageProperties().isRedelivered();
         final int waitBeforeSendBack = 2000;
         long deliveryTag = message.getMessageProperties().getDeliveryTag();
         LOGGER.debug("Thread id {} spawned for EventHandler", Thread.currentThread().getId());
         try {
+            id = event.getEventJson().get("meta").get("id").toString();
             LOGGER.info("Event {} Received", id);
-            eventReceived(messageBody, isRedelivered);
-            channel.basicAck(deliveryTag, false);
-            LOGGER.info("Event {} processed", id);
+            String eventId = event.getEventId();
+            if (processedEventRegistry.isProcessed(eventId, isRedelivered)) {
+                ackCoordinator.ack(channel, deliveryTag);
+                LOGGER.info("Event {} has already been processed", id);
+                return;
+            }
+            PendingWrites writes = bulkWriteBuffer.startTracking();
+            try {
+                eventReceived(event, isRedelivered);
+            } finally {
+                bulkWriteBuffer.stopTracking();
+            }
+            // The event is acknowledged when MongoDB has acknowledged the
+            // batched writes it made, at once if it made none
+            final String processedId = id;
+            writes.whenAcknowledged().whenComplete(
+                    (result, error) -> ackWhenWritten(event, processedId, error, channel, deliveryTag));
         } catch (MongoDBConnectionException mdce) {
             if (mdce.getMessage().equalsIgnoreCase("MongoDB Connection down")) {
-                if (mongoDBMonitorThread.getState() == Thread.State.NEW
-                        || mongoDBMonitorThread.getState() == Thread.State.TERMINATED) {
-                    // if the previous Thread state is TERMINATED then get a new
-                    // mongoDBMonitorThread instance
-                    synchronized (this) {
-                        if (mongoDBMonitorThread.getState() == Thread.State.TERMINATED) {
-                            mongoDBMonitorThread = SpringContext.getBean(
-                                    MongoDBMonitorThread.class);
-                        }
-                        // New thread will start to monitor the mongoDB connection status
-                        if (mongoDBMonitorThread.getState() == Thread.State.NEW) {
-                            mongoDBMonitorThread.setMongoDBConnected(false);
-                            mongoDBMonitorThread.start();
-                        }
-                    }
-                }
-                // Continue the loop till the mongoDB connection is Re-established
-                while (!mongoDBMonitorThread.isMongoDBConnected()) {
-                    try {
-                        Thread.sleep(30000);
-                        LOGGER.info("Waiting for MongoDB connection...");
-                    } catch (InterruptedException ie) {
-                        LOGGER.error("MongoDBMonitorThread got Interrupted");
-                    }
-                }
+                // Stop receiving events until MongoDB is up again, instead of
+                // keeping this thread waiting for it
+                mongoDBCircuitBreaker.open();
             }
-            // once the mongoDB Connection is up event will be sent back to queue with
-            // un-acknowledgement
-            channel.basicNack(deliveryTag, false, true);
+            ackCoordinator.nack(channel, deliveryTag, true);
             LOGGER.info("Sent back the event {} to queue with un-acknowledgement due to {}", id, mdce);
         } catch (HttpHostConnectException | MongoExecutionTimeoutException e) {
+            if (eventRetryHandler.isEnabled()) {
+                // The retry queues delay the event without keeping this thread
+                eventRetryHandler.retry(message, channel);
+                LOGGER.info("Sent the event {} to the retry queues due to {}", id, e.getMessage());
+            } else {
                 LOGGER.info("Waiting for {} mili-seconds before sending the event back to queue", waitBeforeSendBack);
                 Thread.sleep(waitBeforeSendBack);
-                channel.basicNack(deliveryTag, false, true);
+                ackCoordinator.nack(channel, deliveryTag, true);
                 LOGGER.info("Sent back the event {} to queue with un-acknowledgement: ", id);
+            }
+        } catch (Exception e) {
+            LOGGER.error("Event is not Re-queued due to exception for id: {} Exception: {} ", id, e);
+            // Reject the event so that its delivery tag is settled and the
+            // batched acknowledgements can move past it
+            ackCoordinator.nack(channel, deliveryTag, false);
+        }
+    }
+
+    private void ackWhenWritten(EventContext event, String id, Throwable error, Channel channel,
+            long deliveryTag) {
+        try {
+            if (error != null) {
+                LOGGER.error("Failed to store the writes of event {}, sending it back to the queue.", id, error);
+                ackCoordinator.nack(channel, deliveryTag, true);
+                return;
+            }
+            if (!event.isWaitListed()) {
+                processedEventRegistry.markProcessed(event.getEventId());
+            }
+            ackCoordinator.ack(channel, deliveryTag);
+            LOGGER.info("Event {} processed", id);
         } catch (Exception e) {
-        LOGGER.error("Event is not Re-queued due to exception for id: {} Exception: {} ", id, e);
+            LOGGER.error("Failed to acknowledge event {}.", id, e);
         }
     }
 
-}
\ No newline at end of file
+}
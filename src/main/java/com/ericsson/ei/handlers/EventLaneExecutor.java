@@ -0,0 +1,115 @@
+/*
+   Copyright 2026 Ericsson AB.
+   For a full list of individual contributors, please see the commit history.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.ericsson.ei.handlers;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Runs events in a number of serial lanes. Each event is given a key, and all
+ * events with the same key run one at a time in the order they were submitted,
+ * while events with keys in different lanes run in parallel.
+ *
+ * <p>
+ * The number of lanes is set with threads.event.lanes. With 0 lanes, which is
+ * the default, the executor is not used and events are processed by the
+ * asynchronous executor configured in SpringAsyncConfig.
+ * </p>
+ */
+@Component
+public class EventLaneExecutor {
+
+    @Getter
+    @Setter
+    @Value("${threads.event.lanes:0}")
+    private int lanes;
+
+    @Setter
+    @Value("${threads.queue.capacity}")
+    private int queueCapacity;
+
+    private ThreadPoolTaskExecutor[] executors;
+
+    @PostConstruct
+    public void init() {
+        if (!isEnabled()) {
+            return;
+        }
+        executors = new ThreadPoolTaskExecutor[lanes];
+        for (int i = 0; i < lanes; i++) {
+            ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+            executor.setCorePoolSize(1);
+            executor.setMaxPoolSize(1);
+            executor.setQueueCapacity(queueCapacity);
+            executor.setThreadNamePrefix("EventLane-" + i + "-");
+            executor.initialize();
+            executors[i] = executor;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executors != null) {
+            for (ThreadPoolTaskExecutor executor : executors) {
+                executor.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Returns true if events should be run in lanes.
+     *
+     * @return true if at least one lane is configured
+     */
+    public boolean isEnabled() {
+        return lanes > 0;
+    }
+
+    /**
+     * Queues a task in the lane of the given key.
+     *
+     * @param key  the key of the event, for example the id of its aggregation
+     * @param task the task processing the event
+     * @throws TaskRejectedException if the queue of the lane is full
+     */
+    public void execute(String key, Runnable task) {
+        executors[getLane(key)].execute(task);
+    }
+
+    /**
+     * Returns the lane a key belongs to.
+     *
+     * @param key the key of the event
+     * @return the lane index, between 0 and the number of lanes
+     */
+    public int getLane(String key) {
+        if (key == null) {
+            return 0;
+        }
+        int hash = key.hashCode();
+        // Spread the high bits, like HashMap does, before taking the modulo
+        return Math.floorMod(hash ^ (hash >>> 16), lanes);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+   Copyright 2026 Ericsson AB.
+   For a full list of individual contributors, please see the commit history.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.ericsson.ei.handlers;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.rabbitmq.client.Channel;
+
+import lombok.Setter;
+
+/**
+ * Sends events that failed because of a temporary problem to the retry queues
+ * declared by {@link RMQHandler#retryQueues()}, instead of waiting and sending
+ * them back to the queue of Eiffel Intelligence. The number of attempts is
+ * kept in a message header, and each attempt waits in the queue of the next
+ * longer delay. If rabbitmq.retry.max.attempts is set, an event that has used
+ * all its attempts is moved to the parking queue, otherwise it is retried until
+ * it succeeds.
+ */
+@Component
+public class EventRetryHandler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventRetryHandler.class);
+
+    public static final String RETRY_COUNT_HEADER = "x-ei-retry-count";
+
+    @Setter
+    @Autowired
+    private RMQProperties rmqProperties;
+
+    @Setter
+    @Autowired
+    private ConfirmedPublisher confirmedPublisher;
+
+    /**
+     * Returns true if retry queues are configured.
+     *
+     * @return true if events are retried through the retry queues
+     */
+    public boolean isEnabled() {
+        return !rmqProperties.getRetryDelayList().isEmpty();
+    }
+
+    /**
+     * Publishes a copy of the message to the retry queue of its next attempt,
+     * or to the parking queue if it has no attempts left, and acknowledges the
+     * original message when the broker has confirmed the copy. If the copy is
+     * not confirmed the message is sent back to the queue.
+     *
+     * @param message the message that failed
+     * @param channel the channel the message was delivered on
+     */
+    public void retry(Message message, Channel channel) {
+        MessageProperties properties = message.getMessageProperties();
+        int attempt = getRetryCount(properties) + 1;
+        String queueName;
+        if (rmqProperties.isParkingEnabled() && attempt > rmqProperties.getRetryMaxAttempts()) {
+            queueName = rmqProperties.getParkingQueueName();
+            LOGGER.warn("Event has failed {} times, moving it to {}.", attempt, queueName);
+        } else {
+            List<Integer> delays = rmqProperties.getRetryDelayList();
+            int delay = delays.get(Math.min(attempt, delays.size()) - 1);
+            queueName = rmqProperties.getRetryQueueName(delay);
+            LOGGER.info("Retrying event in {} milliseconds, attempt {}.", delay, attempt);
+        }
+        properties.setHeader(RETRY_COUNT_HEADER, attempt);
+        confirmedPublisher.publishCopy(message, channel, "", queueName);
+    }
+
+    private int getRetryCount(MessageProperties properties) {
+        Object count = properties.getHeaders().get(RETRY_COUNT_HEADER);
+        if (count instanceof Number) {
+            return ((Number) count).intValue();
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+   Copyright 2026 Ericsson AB.
+   For a full list of individual contributors, please see the commit history.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.ericsson.ei.handlers;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.rabbitmq.client.Channel;
+
+import lombok.Setter;
+
+/**
+ * Moves events from the queues of Eiffel Intelligence to the shard queues
+ * declared by {@link RMQHandler#shardQueues()}. The events are published to
+ * the consistent hash exchange with the shard key in a header, so all events
+ * with the same key end up in the same shard queue and are processed by the
+ * one instance consuming from it.
+ */
+@Component
+public class EventShardRouter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventShardRouter.class);
+
+    public static final String SHARD_KEY_HEADER = "x-ei-shard-key";
+
+    @Setter
+    @Autowired
+    private RMQProperties rmqProperties;
+
+    @Setter
+    @Autowired
+    private ConfirmedPublisher confirmedPublisher;
+
+    /**
+     * Publishes a copy of the message to the shard exchange and acknowledges
+     * the original message when the broker has confirmed the copy. If the copy
+     * is not confirmed the message is sent back to the queue.
+     *
+     * @param message  the message to route
+     * @param shardKey the key deciding the shard of the message
+     * @param channel  the channel the message was delivered on
+     */
+    public void route(Message message, String shardKey, Channel channel) {
+        message.getMessageProperties().setHeader(SHARD_KEY_HEADER, shardKey);
+        LOGGER.debug("Routing event with shard key {} to {}.", shardKey, rmqProperties.getShardExchangeName());
+        confirmedPublisher.publishCopy(message, channel, rmqProperties.getShardExchangeName(), "");
+    }
+}
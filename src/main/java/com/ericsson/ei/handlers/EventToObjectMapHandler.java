@@ -23,6 +23,7 @@ import javax.annotation.PostConstruct;
 
 import org.apache.commons.lang3.StringUtils;
 import org.bson.Document;
+import org.bson.conversions.Bson;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,17 +32,19 @@ import org.springframework.stereotype.Component;
 
 import com.ericsson.ei.exception.AbortExecutionException;
 import com.ericsson.ei.jmespath.JmesPathInterface;
+import com.ericsson.ei.mongo.BulkWriteBuffer;
+import com.ericsson.ei.mongo.MongoBsonQuery;
 import com.ericsson.ei.mongo.MongoCondition;
 import com.ericsson.ei.mongo.MongoConstants;
 import com.ericsson.ei.mongo.MongoDBHandler;
+import com.ericsson.ei.mongo.MongoQuery;
 import com.ericsson.ei.mongo.MongoStringQuery;
 import com.ericsson.ei.rules.RulesObject;
 import com.fasterxml.jackson.annotation.JsonIgnore;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
 
 /**
  * @author evasiba
@@ -64,6 +67,9 @@ public class EventToObjectMapHandler {
     @Autowired
     MongoDBHandler mongodbhandler;
 
+    @Autowired
+    BulkWriteBuffer bulkWriteBuffer;
+
     @Autowired
     JmesPathInterface jmesPathInterface;
     
@@ -93,6 +99,10 @@ public class EventToObjectMapHandler {
         this.mongodbhandler = mongodbhandler;
     }
 
+    public void setBulkWriteBuffer(BulkWriteBuffer bulkWriteBuffer) {
+        this.bulkWriteBuffer = bulkWriteBuffer;
+    }
+
     public void setJmesPathInterface(JmesPathInterface jmesPathInterface) {
         this.jmesPathInterface = jmesPathInterface;
     }
@@ -114,42 +124,42 @@ public class EventToObjectMapHandler {
      * @param objectId    aggregated event object Id
      */
     public void updateEventToObjectMapInMemoryDB(RulesObject rulesObject, String event, String objectId, int ttlValue) {
+        updateEventToObjectMapInMemoryDB(rulesObject, EventContext.fromString(event), objectId, ttlValue);
+    }
+
+    /**
+     * To check and save the eventIds to the objectId in the mapped database.
+     *
+     * @param rulesObject
+     * @param event
+     * @param objectId    aggregated event object Id
+     */
+    public void updateEventToObjectMapInMemoryDB(RulesObject rulesObject, EventContext event, String objectId,
+            int ttlValue) {
         String eventId = getEventId(rulesObject, event);
 
         final MongoCondition condition = MongoCondition.idCondition(objectId);
-        LOGGER.debug(
-                "Checking document exists in the collection with condition : {}\n EventId : {}",
-                condition, eventId);
-        boolean docExists = mongodbhandler.checkDocumentExists(databaseName, collectionName,
-                condition);
+        LOGGER.debug("Adding event {} to the document with condition : {}", eventId, condition);
 
         try {
-            if (!docExists) {
-                ArrayList<String> list = new ArrayList<String>();
-                list.add(eventId);
-                final ObjectMapper mapper = new ObjectMapper();
-                JsonNode entry = new ObjectMapper().readValue(condition.toString(), JsonNode.class);
-                ArrayNode jsonNode = mapper.convertValue(list, ArrayNode.class);
-                ((ObjectNode) entry).set(listPropertyName, mapper.readTree(jsonNode.toString()));
-                final String mapStr = entry.toString();
-                LOGGER.debug(
-                        "MongoDbHandler Insert/Update Event: {}\nto database: {} and to Collection: {}",
-                        mapStr, databaseName, collectionName);
-                Document document = Document.parse(mapStr);
-                document.append("Time", DateUtils.getDate());
-                mongodbhandler.insertDocumentObject(databaseName, collectionName, document, condition, eventId);
-            } else {
-                mongodbhandler.updateDocumentAddToSet(databaseName, collectionName, condition,
-                        eventId);
-            }
+            // A single upsert creates the document or adds the event to it, and is
+            // sent with other writes to the map in a bulk write
+            Bson update = Updates.combine(Updates.addToSet(listPropertyName, eventId),
+                    Updates.set(MongoConstants.TIME, DateUtils.getDate()));
+            bulkWriteBuffer.add(databaseName, collectionName, new UpdateOneModel<>(condition.getQueryDocument(),
+                    update, new UpdateOptions().upsert(true)));
         } catch (Exception e) {
             LOGGER.error("Failed to update event object list.", e);
         }
     }
 
     public String getEventId(RulesObject rulesObject, String event) {
+        return getEventId(rulesObject, EventContext.fromString(event));
+    }
+
+    public String getEventId(RulesObject rulesObject, EventContext event) {
         String idRule = rulesObject.getIdRule();
-        JsonNode eventIdJson = jmesPathInterface.runRuleOnEvent(idRule, event);
+        JsonNode eventIdJson = event.runRule(idRule, rulesObject.getIdRuleExpression(), jmesPathInterface);
         return eventIdJson.textValue();
     }
 
@@ -160,15 +170,11 @@ public class EventToObjectMapHandler {
 
     public ArrayList<String> getEventToObjectList(String eventId) {
         ArrayList<String> list = new ArrayList<String>();
-        final MongoCondition condition = MongoCondition.idCondition(eventId);
-        ArrayList<String> documents = mongodbhandler.find(databaseName, collectionName, condition);
+        final MongoQuery query = MongoBsonQuery.idQuery(eventId).withProjection(listPropertyName);
+        List<Document> documents = mongodbhandler.findDocumentObjects(databaseName, collectionName, query);
         if (!documents.isEmpty()) {
-            String mapStr = documents.get(0);
-            ObjectMapper mapper = new ObjectMapper();
             try {
-                JsonNode document = mapper.readValue(mapStr, JsonNode.class);
-                JsonNode value = document.get(listPropertyName);
-                list = new ObjectMapper().readValue(value.traverse(), new TypeReference<ArrayList<String>>() {});
+                list = new ArrayList<>(documents.get(0).getList(listPropertyName, String.class));
             } catch (Exception e) {
                 LOGGER.error("Failed to deserialize event object list.", e);
             }
@@ -193,8 +199,7 @@ public class EventToObjectMapHandler {
     	String condition = "{\"objects\": { \"$in\" : [\"" + eventId + "\"]} }";
         MongoStringQuery query = new MongoStringQuery(condition);
         LOGGER.debug("The JSON query for isEventInEventObjectMap is : {}", query);
-        List<String> documents = mongodbhandler.find(databaseName, collectionName, query);
-        return !documents.isEmpty();
+        return mongodbhandler.exists(databaseName, collectionName, query);
     }
     
     /**
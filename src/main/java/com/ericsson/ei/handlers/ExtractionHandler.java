@@ -17,6 +17,8 @@
 package com.ericsson.ei.handlers;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 import org.apache.http.conn.HttpHostConnectException;
 import org.slf4j.Logger;
@@ -34,6 +36,8 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.mongodb.MongoExecutionTimeoutException;
+import com.mongodb.MongoSocketException;
+import com.mongodb.MongoTimeoutException;
 
 @Component
 public class ExtractionHandler {
@@ -68,6 +72,16 @@ public class ExtractionHandler {
 
     public void runExtraction(RulesObject rulesObject, String id, String event, String aggregatedDbObject, boolean isRedelivered)
             throws HttpHostConnectException, MongoExecutionTimeoutException, MongoDBConnectionException {
+        runExtraction(rulesObject, id, EventContext.fromString(event), aggregatedDbObject, isRedelivered);
+    }
+
+    public void runExtraction(RulesObject rulesObject, String mergeId, String event, JsonNode aggregatedDbObject, boolean isRedelivered)
+            throws HttpHostConnectException, MongoExecutionTimeoutException, MongoDBConnectionException {
+        runExtraction(rulesObject, mergeId, EventContext.fromString(event), aggregatedDbObject, isRedelivered);
+    }
+
+    public void runExtraction(RulesObject rulesObject, String id, EventContext event, String aggregatedDbObject, boolean isRedelivered)
+            throws HttpHostConnectException, MongoExecutionTimeoutException, MongoDBConnectionException {
         try {
             ObjectMapper mapper = new ObjectMapper();
             JsonNode aggregatedJsonObject = mapper.readTree(aggregatedDbObject);
@@ -77,8 +91,12 @@ public class ExtractionHandler {
         }
     }
 
-    public void runExtraction(RulesObject rulesObject, String mergeId, String event, JsonNode aggregatedDbObject, boolean isRedelivered)
+    public void runExtraction(RulesObject rulesObject, String mergeId, EventContext event, JsonNode aggregatedDbObject, boolean isRedelivered)
             throws HttpHostConnectException, MongoExecutionTimeoutException, MongoDBConnectionException {
+        // The subscriptions do not depend on the aggregated object. Once it is
+        // known to be updated they are read while the rules and the upstream
+        // events are processed.
+        CompletableFuture<Stream<JsonNode>> subscriptions = null;
         try {
             JsonNode extractedContent = extractContent(rulesObject, event);
             String mergedContent = null;
@@ -94,6 +112,7 @@ public class ExtractionHandler {
                 if (mergedContent == null) {
                     return;
                 }
+                subscriptions = objectHandler.fetchSubscriptions();
 
                 // Need to extract the history rules for the re-delivered start event type.
                 if (rulesObject.isStartEventRules() && isRedelivered) {
@@ -104,30 +123,43 @@ public class ExtractionHandler {
                 }
             } else {
                 LOGGER.trace("***** Extraction starts for the aggregation Id: " + mergeId);
-                ObjectNode objectNode = (ObjectNode) extractedContent;
+                // The extracted content may be a part of the shared event tree, copy it
+                // before adding to it
+                ObjectNode objectNode = (ObjectNode) extractedContent.deepCopy();
                 objectNode.put("TemplateName", rulesObject.getTemplateName());
-                mergedContent = mergeHandler.addNewObject(event, extractedContent, rulesObject);
+                mergedContent = mergeHandler.addNewObject(event, objectNode, rulesObject);
                 aggregatedObjectId = mergeId;
+                subscriptions = objectHandler.fetchSubscriptions();
                 upStreamEventsHandler.runHistoryExtractionRulesOnAllUpstreamEvents(mergeId);
                 mergedContent = objectHandler.findObjectById(mergeId);
                 LOGGER.trace("**** Extraction ends for the aggregation Id: " + mergeId);
             }
-            objectHandler.checkAggregations(mergedContent, aggregatedObjectId);
+            objectHandler.checkAggregations(mergedContent, aggregatedObjectId, subscriptions);
         } catch (HttpHostConnectException | MongoExecutionTimeoutException e) {
             LOGGER.warn("Extraction failed for {}, due to {}. Sending back to queue.", event, e.getMessage());
             throw e;
         } catch (Exception e) {
             LOGGER.error("Failed to run extraction for event {}", event, e);
-            if (e.getMessage() != null && e.getMessage().equalsIgnoreCase("MongoDB Connection down")) {
+            if (e instanceof MongoSocketException || e instanceof MongoTimeoutException
+                    || (e.getMessage() != null && e.getMessage().equalsIgnoreCase("MongoDB Connection down"))) {
                 throw new MongoDBConnectionException("MongoDB Connection down");
             }
+        } finally {
+            // Closes the cursor of subscriptions that were not checked
+            if (subscriptions != null) {
+                subscriptions.thenAccept(Stream::close);
+            }
         }
     }
 
     private JsonNode extractContent(RulesObject rulesObject, String event) {
+        return extractContent(rulesObject, EventContext.fromString(event));
+    }
+
+    private JsonNode extractContent(RulesObject rulesObject, EventContext event) {
         String extractionRules;
         extractionRules = rulesObject.getExtractionRules();
-        return jmesPathInterface.runRuleOnEvent(extractionRules, event);
+        return event.runRule(extractionRules, rulesObject.getExtractionRulesExpression(), jmesPathInterface);
     }
 
 }
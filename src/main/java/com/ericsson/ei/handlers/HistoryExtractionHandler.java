@@ -28,6 +28,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import io.burt.jmespath.Expression;
+
 /**
  * The Class HistoryExtractionHandler.
  */
@@ -141,6 +143,9 @@ public class HistoryExtractionHandler {
     private JsonNode extractContent(RulesObject rulesObject, String event) {
         String extractionRules;
         extractionRules = rulesObject.getHistoryExtractionRules();
+        Expression<JsonNode> expression = rulesObject.getHistoryExtractionRulesExpression();
+        if (expression != null)
+            return jmesPathInterface.runExpressionOnEvent(expression, event);
         return jmesPathInterface.runRuleOnEvent(extractionRules, event);
     }
 
@@ -151,6 +156,9 @@ public class HistoryExtractionHandler {
      */
     private JsonNode getHistoryPathRule(RulesObject rulesObject, String event) {
         String rule = rulesObject.getHistoryPathRules();
+        Expression<JsonNode> expression = rulesObject.getHistoryPathRulesExpression();
+        if (expression != null)
+            return jmesPathInterface.runExpressionOnEvent(expression, event);
         if (rule != null)
             return jmesPathInterface.runRuleOnEvent(rule, event);
 
@@ -0,0 +1,117 @@
+/*
+   Copyright 2026 Ericsson AB.
+   For a full list of individual contributors, please see the commit history.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.ericsson.ei.handlers;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.ericsson.ei.mongo.MongoDBHandler;
+
+import lombok.Setter;
+
+/**
+ * Stops consuming events from RabbitMQ while MongoDB is down. When an event
+ * fails because the connection to MongoDB is lost the circuit is opened and
+ * the listener container is stopped, so no new events are received. Events
+ * already being processed fail and are sent back to the queue. A scheduled
+ * probe checks MongoDB every mongodb.outage.probe.interval milliseconds and
+ * starts the listener container again as soon as MongoDB answers.
+ */
+@Component
+public class MongoDBCircuitBreaker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MongoDBCircuitBreaker.class);
+
+    @Setter
+    @Autowired
+    private MongoDBHandler mongoDBHandler;
+
+    @Setter
+    @Autowired
+    private RMQHandler rmqHandler;
+
+    @Setter
+    @Autowired
+    private AckCoordinator ackCoordinator;
+
+    /**
+     * Stops and starts the container. The container can not be stopped from one
+     * of its own listener threads, since stopping waits for them to finish.
+     */
+    @Setter
+    private Executor lifecycleExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "MongoDBCircuitBreaker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicBoolean open = new AtomicBoolean(false);
+
+    /**
+     * Opens the circuit and stops receiving events, unless it is already open.
+     */
+    public void open() {
+        if (open.compareAndSet(false, true)) {
+            LOGGER.warn("MongoDB connection is down, pausing consumption of events.");
+            lifecycleExecutor.execute(() -> {
+                SimpleMessageListenerContainer container = rmqHandler.getContainer();
+                // Acknowledgements waiting in a batch would be dropped when the
+                // channel closes, and their events processed again
+                ackCoordinator.flushAll();
+                if (container != null) {
+                    container.stop();
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns true while events are not consumed because MongoDB is down.
+     *
+     * @return true if the circuit is open
+     */
+    public boolean isOpen() {
+        return open.get();
+    }
+
+    /**
+     * Closes the circuit and starts receiving events again if MongoDB is back.
+     */
+    @Scheduled(initialDelayString = "${mongodb.outage.probe.interval:2000}", fixedDelayString = "${mongodb.outage.probe.interval:2000}")
+    public void probe() {
+        if (!open.get() || !mongoDBHandler.isMongoDBServerUp()) {
+            return;
+        }
+        if (open.compareAndSet(true, false)) {
+            LOGGER.info("MongoDB connection is up again, resuming consumption of events.");
+            lifecycleExecutor.execute(() -> {
+                SimpleMessageListenerContainer container = rmqHandler.getContainer();
+                if (container != null) {
+                    container.start();
+                }
+            });
+        }
+    }
+}
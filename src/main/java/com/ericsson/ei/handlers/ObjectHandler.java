@@ -19,6 +19,8 @@ package com.ericsson.ei.handlers;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 import javax.annotation.PostConstruct;
 
@@ -33,6 +35,8 @@ import org.springframework.stereotype.Component;
 import com.ericsson.ei.exception.AbortExecutionException;
 import com.ericsson.ei.exception.MongoDBConnectionException;
 import com.ericsson.ei.jmespath.JmesPathInterface;
+import com.ericsson.ei.mongo.BsonConverter;
+import com.ericsson.ei.mongo.MongoBsonQuery;
 import com.ericsson.ei.mongo.MongoCondition;
 import com.ericsson.ei.mongo.MongoConstants;
 import com.ericsson.ei.mongo.MongoDBHandler;
@@ -108,23 +112,58 @@ public class ObjectHandler {
      */
     public String insertObject(String aggregatedObject, RulesObject rulesObject, String event,
             String givenId) throws MongoDBConnectionException {
+        return insertObject(aggregatedObject, rulesObject, EventContext.fromString(event), givenId);
+    }
+
+    /**
+     * This method is responsible for inserting an aggregated object in to the database.
+     *
+     * @param aggregatedObject String format of an aggregated object to be inserted
+     * @param rulesObject      RulesObject
+     * @param event            the event, used to fetch id if not specified
+     * @param givenId          String id is stored together with aggregated object in database
+     * @throws                 MongoDBConnectionException
+     */
+    public String insertObject(String aggregatedObject, RulesObject rulesObject, EventContext event,
+            String givenId) throws MongoDBConnectionException {
         String id = givenId;
         if (id == null) {
-            String idRules = rulesObject.getIdRule();
-            JsonNode idNode = jmespathInterface.runRuleOnEvent(idRules, event);
-            id = idNode.textValue();
+            id = getIdFromEvent(rulesObject, event);
         }
         BasicDBObject document = prepareDocumentForInsertion(id, aggregatedObject);
         LOGGER.debug("ObjectHandler: Aggregated Object document to be inserted: {}",
                 document.toString());
         mongoDbHandler.insertDocument(databaseName, aggregationsCollectionName, document.toString());
-        postInsertActions(aggregatedObject, rulesObject, event, id);
+        postInsertActions(rulesObject, event, id);
         return aggregatedObject;
     }
 
     public String insertObject(JsonNode aggregatedObject, RulesObject rulesObject, String event,
             String id) throws MongoDBConnectionException {
-    return insertObject(aggregatedObject.toString(), rulesObject, event, id);
+        return insertObject(aggregatedObject, rulesObject, EventContext.fromString(event), id);
+    }
+
+    /**
+     * This method is responsible for inserting an aggregated object in to the database. The
+     * object is converted to a document directly, without being written as a String.
+     *
+     * @param aggregatedObject the aggregated object to be inserted
+     * @param rulesObject      RulesObject
+     * @param event            the event, used to fetch id if not specified
+     * @param givenId          String id is stored together with aggregated object in database
+     * @throws                 MongoDBConnectionException
+     */
+    public String insertObject(JsonNode aggregatedObject, RulesObject rulesObject, EventContext event,
+            String givenId) throws MongoDBConnectionException {
+        String id = givenId;
+        if (id == null) {
+            id = getIdFromEvent(rulesObject, event);
+        }
+        Document document = prepareDocumentForInsertion(id, aggregatedObject);
+        LOGGER.debug("ObjectHandler: Aggregated Object document to be inserted: {}", document);
+        mongoDbHandler.insertDocumentObject(databaseName, aggregationsCollectionName, document);
+        postInsertActions(rulesObject, event, id);
+        return aggregatedObject.toString();
     }
 
     /**
@@ -139,11 +178,23 @@ public class ObjectHandler {
      */
     public void updateObject(String aggregatedObject, RulesObject rulesObject, String event,
             final String givenId) {
+        updateObject(aggregatedObject, rulesObject, EventContext.fromString(event), givenId);
+    }
+
+    /**
+     * This method uses previously locked in database aggregatedObject (lock was set in lockDocument
+     * method) and modifies this document with the new values and removes the lock in one query
+     *
+     * @param aggregatedObject String to insert in database
+     * @param rulesObject      used for fetching id
+     * @param event            the event, to fetch id if it was not specified
+     * @param givenId          String
+     */
+    public void updateObject(String aggregatedObject, RulesObject rulesObject, EventContext event,
+            final String givenId) {
         String id = givenId;
         if (id == null) {
-            String idRules = rulesObject.getIdRule();
-            JsonNode idNode = jmespathInterface.runRuleOnEvent(idRules, event);
-            id = idNode.textValue();
+            id = getIdFromEvent(rulesObject, event);
         }
         LOGGER.debug("ObjectHandler: Updating Aggregated Object:\n{} \nEvent:\n{}",
                 aggregatedObject, event);
@@ -151,12 +202,36 @@ public class ObjectHandler {
         final MongoCondition condition = MongoCondition.idCondition(id);
         String documentStr = document.toString();
         mongoDbHandler.updateDocument(databaseName, aggregationsCollectionName, condition, documentStr);
-        postInsertActions(aggregatedObject, rulesObject, event, id);
+        postInsertActions(rulesObject, event, id);
     }
 
     public void updateObject(JsonNode aggregatedObject, RulesObject rulesObject, String event,
             String id) {
-        updateObject(aggregatedObject.toString(), rulesObject, event, id);
+        updateObject(aggregatedObject, rulesObject, EventContext.fromString(event), id);
+    }
+
+    /**
+     * This method uses previously locked in database aggregatedObject (lock was set in lockDocument
+     * method) and modifies this document with the new values and removes the lock in one query. The
+     * object is converted to a document directly, without being written as a String.
+     *
+     * @param aggregatedObject the aggregated object to store in database
+     * @param rulesObject      used for fetching id
+     * @param event            the event, to fetch id if it was not specified
+     * @param givenId          String
+     */
+    public void updateObject(JsonNode aggregatedObject, RulesObject rulesObject, EventContext event,
+            final String givenId) {
+        String id = givenId;
+        if (id == null) {
+            id = getIdFromEvent(rulesObject, event);
+        }
+        LOGGER.debug("ObjectHandler: Updating Aggregated Object:\n{} \nEvent:\n{}",
+                aggregatedObject, event);
+        Document document = prepareDocumentForInsertion(id, aggregatedObject);
+        final MongoCondition condition = MongoCondition.idCondition(id);
+        mongoDbHandler.updateDocumentObject(databaseName, aggregationsCollectionName, condition, document);
+        postInsertActions(rulesObject, event, id);
     }
 
     /**
@@ -221,6 +296,27 @@ public class ObjectHandler {
         return document;
     }
 
+    /**
+     * This method creates a new document containing id, aggregated object and sets the time to live
+     * value.
+     *
+     * @param id
+     * @param object
+     * @return document
+     */
+    public Document prepareDocumentForInsertion(String id, JsonNode object) {
+        Document document = BsonConverter.toDocument(object);
+        document.put(MongoConstants.ID, id);
+        try {
+            if (getTtl() > 0) {
+                document.put(MongoConstants.TIME, DateUtils.getDate());
+            }
+        } catch (ParseException e) {
+            LOGGER.error("Failed to attach date to document.", e);
+        }
+        return document;
+    }
+
     /**
      * This method gets the id from an aggregated object.
      *
@@ -303,16 +399,17 @@ public class ObjectHandler {
     }
 
     private boolean isInvalidId(String id) {
-        final MongoCondition idCondition = MongoCondition.idCondition(id);
-        ArrayList<String> documentExistsCheck = mongoDbHandler.find(databaseName,
-                aggregationsCollectionName,
-                idCondition);
+        return !mongoDbHandler.exists(databaseName, aggregationsCollectionName,
+                MongoBsonQuery.idQuery(id));
+    }
 
-        return documentExistsCheck.isEmpty();
+    private String getIdFromEvent(RulesObject rulesObject, EventContext event) {
+        String idRules = rulesObject.getIdRule();
+        JsonNode idNode = event.runRule(idRules, rulesObject.getIdRuleExpression(), jmespathInterface);
+        return idNode.textValue();
     }
 
-    private void postInsertActions(String aggregatedObject, RulesObject rulesObject, String event,
-            String id) {
+    private void postInsertActions(RulesObject rulesObject, EventContext event, String id) {
     	LOGGER.debug("Updating the event object map with event id: " + id + " event is : " + event);
         eventToObjectMap.updateEventToObjectMapInMemoryDB(rulesObject, event, id, getTtl());
     }
@@ -326,4 +423,27 @@ public class ObjectHandler {
     public void checkAggregations(String aggregatedObject, String id) {
         subscriptionHandler.checkSubscriptionForObject(aggregatedObject, id);
     }
+
+    /**
+     * This method is used to check the aggregations for the subscriptions, with
+     * subscriptions that are read by {@link #fetchSubscriptions()}.
+     *
+     * @param aggregatedObject
+     * @param id - Aggregated object id.
+     * @param subscriptions - the subscriptions being read, or null to read them now.
+     */
+    public void checkAggregations(String aggregatedObject, String id,
+            CompletableFuture<Stream<JsonNode>> subscriptions) {
+        subscriptionHandler.checkSubscriptionForObject(aggregatedObject, id, subscriptions);
+    }
+
+    /**
+     * Starts reading the subscriptions in the background, if MongoDB operations
+     * run in the background.
+     *
+     * @return the subscriptions being read, or null
+     */
+    public CompletableFuture<Stream<JsonNode>> fetchSubscriptions() {
+        return subscriptionHandler.fetchSubscriptions();
+    }
 }
@@ -0,0 +1,162 @@
+/*
+   Copyright 2026 Ericsson AB.
+   For a full list of individual contributors, please see the commit history.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.ericsson.ei.handlers;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import org.bson.Document;
+
+import com.ericsson.ei.mongo.BulkWriteBuffer;
+import com.ericsson.ei.mongo.MongoBsonQuery;
+import com.ericsson.ei.mongo.MongoConstants;
+import com.ericsson.ei.mongo.MongoDBHandler;
+import com.ericsson.ei.mongo.MongoWorkload;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Remembers the ids of the events that have been processed, so an event that
+ * is received again can be acknowledged without running any rules on it. The
+ * ids are stored in a MongoDB collection, where the id of the event is the id
+ * of the document, and the most recent ones are also kept in memory.
+ *
+ * <p>
+ * Every event is checked against the ids in memory. Only events that RabbitMQ
+ * marks as redelivered are also looked up in the database, since those are the
+ * ones that may have been processed before the connection to RabbitMQ was lost
+ * or by another instance of Eiffel Intelligence.
+ * </p>
+ *
+ * <p>
+ * The ids are written through the {@link BulkWriteBuffer} without holding
+ * back the acknowledgement of the event. An id that is lost only lets a
+ * redelivered event be processed again, as without the registry.
+ * </p>
+ */
+@Component
+public class ProcessedEventRegistry {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProcessedEventRegistry.class);
+
+    @Getter
+    @Setter
+    @Value("${processed.events.enabled:false}")
+    private boolean enabled;
+
+    @Setter
+    @Value("${processed.events.collection.name:processed_events}")
+    private String collectionName;
+
+    @Setter
+    @Value("${processed.events.collection.ttl:86400}")
+    private int ttl;
+
+    @Setter
+    @Value("${processed.events.cache.size:100000}")
+    private int cacheSize;
+
+    @Setter
+    @Value("${spring.data.mongodb.database}")
+    private String databaseName;
+
+    @Setter
+    @Autowired
+    private MongoDBHandler mongoDBHandler;
+
+    @Setter
+    @Autowired
+    private BulkWriteBuffer bulkWriteBuffer;
+
+    private Map<String, Boolean> recentIds;
+
+    @PostConstruct
+    public void init() {
+        recentIds = Collections.synchronizedMap(new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > cacheSize;
+            }
+        });
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (ttl > 0) {
+                mongoDBHandler.createTTLIndex(databaseName, collectionName, MongoConstants.TIME, ttl);
+            }
+        } catch (Exception e) {
+            LOGGER.error("Failed to create an index for {} due to: {}", collectionName, e);
+        }
+    }
+
+    /**
+     * Returns true if the event has been processed before.
+     *
+     * @param eventId     the meta.id of the event
+     * @param redelivered true if RabbitMQ has delivered the event before
+     * @return true if the event is a duplicate
+     */
+    public boolean isProcessed(String eventId, boolean redelivered) {
+        if (!enabled || eventId == null) {
+            return false;
+        }
+        if (recentIds.containsKey(eventId)) {
+            return true;
+        }
+        if (redelivered && mongoDBHandler.exists(databaseName, collectionName, MongoBsonQuery.idQuery(eventId))) {
+            recentIds.put(eventId, Boolean.TRUE);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Records that an event has been processed.
+     *
+     * @param eventId the meta.id of the event
+     */
+    public void markProcessed(String eventId) {
+        if (!enabled || eventId == null) {
+            return;
+        }
+        if (recentIds.put(eventId, Boolean.TRUE) != null) {
+            return;
+        }
+        // An upsert, so an id already stored by another instance is not an error
+        bulkWriteBuffer.addUntracked(MongoWorkload.RELAXED_WRITE, databaseName, collectionName,
+                new UpdateOneModel<Document>(Filters.eq(MongoConstants.ID, eventId),
+                        Updates.setOnInsert(MongoConstants.TIME, new Date()), new UpdateOptions().upsert(true)));
+    }
+}
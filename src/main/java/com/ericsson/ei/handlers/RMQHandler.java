@@ -18,7 +18,9 @@ package com.ericsson.ei.handlers;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
 import org.json.JSONObject;
@@ -29,9 +31,11 @@ import org.springframework.amqp.core.AmqpAdmin;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.Binding.DestinationType;
 import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.CustomExchange;
 import org.springframework.amqp.core.Declarable;
 import org.springframework.amqp.core.Declarables;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
 import org.springframework.amqp.core.TopicExchange;
 import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
@@ -132,14 +136,38 @@ public class RMQHandler {
     @Bean
     public SimpleMessageListenerContainer bindToQueueForRecentEvents(
             ConnectionFactory springConnectionFactory,
-            EventHandler eventHandler) {
-        MessageListenerAdapter listenerAdapter = new EIMessageListenerAdapter(eventHandler);
+            EventHandler eventHandler,
+            EventLaneExecutor eventLaneExecutor) {
+        final boolean bounded = rmqProperties.isBoundedIngestion();
+        MessageListenerAdapter listenerAdapter = new EIMessageListenerAdapter(eventHandler, eventLaneExecutor,
+                bounded, rmqProperties);
         container = new SimpleMessageListenerContainer();
         container.setConnectionFactory(springConnectionFactory);
-        container.setQueueNames(rmqProperties.getQueueName(), rmqProperties.getWaitlistQueueName());
+        List<String> queueNames = new ArrayList<>();
+        queueNames.add(rmqProperties.getQueueName());
+        queueNames.add(rmqProperties.getWaitlistQueueName());
+        for (int shard : rmqProperties.getClaimedShardList()) {
+            queueNames.add(rmqProperties.getShardQueueName(shard));
+        }
+        if (rmqProperties.isSharded()) {
+            LOGGER.info("Consuming events from the shard queues {}.", rmqProperties.getClaimedShardList());
+        }
+        container.setQueueNames(queueNames.toArray(new String[0]));
         container.setMessageListener(listenerAdapter);
         container.setAcknowledgeMode(AcknowledgeMode.MANUAL);
-        container.setPrefetchCount(maxThreads);
+        if (bounded) {
+            // Each consumer processes its events itself, the container starts more
+            // consumers while the queues keep them busy and stops them when idle
+            int minConsumers = Math.max(1, rmqProperties.getMinConsumers());
+            int maxConsumers = Math.max(minConsumers, rmqProperties.getMaxConsumers());
+            LOGGER.info("Processing events in {} to {} consumers with prefetch {}.", minConsumers, maxConsumers,
+                    rmqProperties.getConsumerPrefetch());
+            container.setConcurrentConsumers(minConsumers);
+            container.setMaxConcurrentConsumers(maxConsumers);
+            container.setPrefetchCount(rmqProperties.getConsumerPrefetch());
+        } else {
+            container.setPrefetchCount(maxThreads);
+        }
         return container;
     }
 
@@ -155,10 +183,19 @@ public class RMQHandler {
             rabbitTemplate.setDefaultReceiveQueue(rmqProperties.getWaitlistQueueName());
             rabbitTemplate.setExchange(rmqProperties.getExchangeName());
             rabbitTemplate.setRoutingKey(WAITLIST_BINDING_KEY);
+            // Unroutable events are returned, so they are not taken as confirmed
+            rabbitTemplate.setMandatory(true);
+            rabbitTemplate.setReturnsCallback(returned -> LOGGER.warn(
+                    "Message returned by the broker: {} {}, routing key: {}", returned.getReplyCode(),
+                    returned.getReplyText(), returned.getRoutingKey()));
             rabbitTemplate.setConfirmCallback(new ConfirmCallback() {
                 @Override
                 public void confirm(CorrelationData correlationData, boolean ack, String cause) {
-                    LOGGER.info("Received confirm with result : {}", ack);
+                    if (ack) {
+                        LOGGER.debug("Received confirm with result : {}", ack);
+                    } else {
+                        LOGGER.warn("Received confirm with result : {}, cause: {}", ack, cause);
+                    }
                 }
             });
         }
@@ -170,6 +207,21 @@ public class RMQHandler {
         rabbitTemplate.convertAndSend(message);
     }
 
+    /**
+     * Publishes a message to the waitlist queue without waiting for the broker.
+     * The future of the correlation data is completed when the broker confirms
+     * or rejects the message. The message is mandatory, if it can not be routed
+     * to a queue it is returned and set on the correlation data before the
+     * future is completed.
+     *
+     * @param message         the message to publish
+     * @param correlationData correlates the confirm with the message
+     */
+    public void publishObjectToWaitlistQueueWithConfirm(String message, CorrelationData correlationData) {
+        LOGGER.debug("Publishing message {} to message bus...", correlationData.getId());
+        rabbitTemplate.convertAndSend(message, correlationData);
+    }
+
     public void close() {
         try {
             container.destroy();
@@ -189,6 +241,68 @@ public class RMQHandler {
         return new Queue(rmqProperties.getWaitlistQueueName(), true);
     }
 
+    /**
+     * Declares one queue per retry delay and, if it is enabled, the parking
+     * queue. Events waiting for a retry are published to the queue of their
+     * delay, where they expire and are dead lettered back to the queue of
+     * Eiffel Intelligence. Events that have been retried
+     * rabbitmq.retry.max.attempts times are published to the parking queue,
+     * which nothing consumes.
+     *
+     * @return the retry queues
+     */
+    @Bean
+    public Declarables retryQueues() {
+        List<Declarable> queues = new ArrayList<>();
+        List<Integer> delays = rmqProperties.getRetryDelayList();
+        if (!delays.isEmpty()) {
+            for (int delay : delays) {
+                queues.add(QueueBuilder.durable(rmqProperties.getRetryQueueName(delay))
+                                       .ttl(delay)
+                                       .deadLetterExchange("")
+                                       .deadLetterRoutingKey(rmqProperties.getQueueName())
+                                       .build());
+            }
+            if (rmqProperties.isParkingEnabled()) {
+                queues.add(QueueBuilder.durable(rmqProperties.getParkingQueueName()).build());
+            }
+        }
+        return new Declarables(queues);
+    }
+
+    /**
+     * Declares the consistent hash exchange and the shard queues bound to it.
+     * Events are moved from the queues of Eiffel Intelligence to the exchange,
+     * which picks the shard queue from a hash of the shard key header, so the
+     * events of an aggregation always end up in the same shard queue. The
+     * shard queues have a single active consumer, so an instance claiming a
+     * shard is the only one processing its events, and another instance
+     * claiming the same shard takes over if it goes away. This requires the
+     * rabbitmq_consistent_hash_exchange plugin.
+     *
+     * @return the shard exchange, queues and bindings
+     */
+    @Bean
+    public Declarables shardQueues() {
+        List<Declarable> declarables = new ArrayList<>();
+        if (rmqProperties.isSharded()) {
+            Map<String, Object> arguments = new HashMap<>();
+            arguments.put("hash-header", EventShardRouter.SHARD_KEY_HEADER);
+            CustomExchange shardExchange = new CustomExchange(rmqProperties.getShardExchangeName(),
+                    "x-consistent-hash", true, false, arguments);
+            declarables.add(shardExchange);
+            for (int shard = 0; shard < rmqProperties.getShardCount(); shard++) {
+                Queue shardQueue = QueueBuilder.durable(rmqProperties.getShardQueueName(shard))
+                                               .singleActiveConsumer()
+                                               .build();
+                declarables.add(shardQueue);
+                // The routing key is the weight of the queue in the hash ring
+                declarables.add(BindingBuilder.bind(shardQueue).to(shardExchange).with("1").noargs());
+            }
+        }
+        return new Declarables(declarables);
+    }
+
     @Bean
     protected TopicExchange exchange() {
         return new TopicExchange(rmqProperties.getExchangeName());
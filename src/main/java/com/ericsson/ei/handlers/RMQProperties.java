@@ -16,6 +16,10 @@
 */
 package com.ericsson.ei.handlers;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -88,12 +92,152 @@ public class RMQProperties {
     @Value("${rabbitmq.queue.suffix}")
     private String queueSuffix;
 
+    @Getter
+    @Setter
+    @Value("${rabbitmq.ingestion.mode:async}")
+    private String ingestionMode;
+
+    @Getter
+    @Setter
+    @Value("${rabbitmq.consumers.min:1}")
+    private Integer minConsumers;
+
+    @Getter
+    @Setter
+    @Value("${rabbitmq.consumers.max:50}")
+    private Integer maxConsumers;
+
+    @Getter
+    @Setter
+    @Value("${rabbitmq.consumer.prefetch:64}")
+    private Integer consumerPrefetch;
+
+    @Getter
+    @Setter
+    @Value("${rabbitmq.retry.delays:}")
+    private String retryDelays;
+
+    @Getter
+    @Setter
+    @Value("${rabbitmq.retry.max.attempts:0}")
+    private Integer retryMaxAttempts;
+
+    @Getter
+    @Setter
+    @Value("${rabbitmq.shards.count:0}")
+    private Integer shardCount;
+
+    @Getter
+    @Setter
+    @Value("${rabbitmq.shards.claimed:}")
+    private String claimedShards;
+
+    /**
+     * Returns true if events are processed by the listener threads, with the
+     * number of events in progress bounded by the consumers and their prefetch.
+     *
+     * @return true if rabbitmq.ingestion.mode is bounded
+     */
+    public boolean isBoundedIngestion() {
+        return "bounded".equalsIgnoreCase(ingestionMode);
+    }
+
 
     public String getQueueName() {
         final String durableName = this.queueDurable ? "durable" : "transient";
         return this.domainId + "." + this.componentName + "." + this.queueSuffix + "." + durableName;
     }
 
+    /**
+     * Returns the delays of the retry queues in milliseconds, shortest first.
+     *
+     * @return the retry delays, empty if retry queues are not used
+     */
+    public List<Integer> getRetryDelayList() {
+        List<Integer> delays = new ArrayList<>();
+        if (retryDelays != null) {
+            for (String delay : retryDelays.split(",")) {
+                if (!delay.trim().isEmpty()) {
+                    delays.add(Integer.parseInt(delay.trim()));
+                }
+            }
+        }
+        Collections.sort(delays);
+        return delays;
+    }
+
+    public String getRetryQueueName(int delay) {
+        return getQueueName() + ".retry." + delay;
+    }
+
+    /**
+     * Returns true if events are moved to the parking queue after
+     * rabbitmq.retry.max.attempts retries, instead of being retried until
+     * they succeed.
+     *
+     * @return true if rabbitmq.retry.max.attempts is above 0
+     */
+    public boolean isParkingEnabled() {
+        return retryMaxAttempts != null && retryMaxAttempts > 0;
+    }
+
+    public String getParkingQueueName() {
+        return getQueueName() + ".parking";
+    }
+
+    /**
+     * Returns true if events are distributed over shard queues.
+     *
+     * @return true if rabbitmq.shards.count is above 0
+     */
+    public boolean isSharded() {
+        return shardCount != null && shardCount > 0;
+    }
+
+    /**
+     * Returns the shards this instance consumes from, all shards if none are
+     * configured.
+     *
+     * @return the claimed shard indexes
+     */
+    public List<Integer> getClaimedShardList() {
+        List<Integer> shards = new ArrayList<>();
+        if (!isSharded()) {
+            return shards;
+        }
+        if (claimedShards != null) {
+            for (String shard : claimedShards.split(",")) {
+                if (!shard.trim().isEmpty()) {
+                    shards.add(Integer.parseInt(shard.trim()));
+                }
+            }
+        }
+        if (shards.isEmpty()) {
+            for (int shard = 0; shard < shardCount; shard++) {
+                shards.add(shard);
+            }
+        }
+        return shards;
+    }
+
+    public String getShardExchangeName() {
+        return exchangeName + ".shards";
+    }
+
+    public String getShardQueueName(int shard) {
+        return getQueueName() + ".shard." + shard;
+    }
+
+    /**
+     * Returns true if the queue is one of the shard queues.
+     *
+     * @param queueName the name of a queue
+     * @return true for a shard queue
+     */
+    public boolean isShardQueue(String queueName) {
+        return queueName != null && queueName.startsWith(getQueueName() + ".shard.");
+    }
+
     public String getWaitlistQueueName() {
         final String durableName = this.queueDurable ? "durable" : "transient";
         return this.domainId + "." + this.componentName + "." + this.queueSuffix + "." + durableName + "."
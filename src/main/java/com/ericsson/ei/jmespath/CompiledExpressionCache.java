@@ -0,0 +1,153 @@
+/*
+   Copyright 2026 Ericsson AB.
+   For a full list of individual contributors, please see the commit history.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.ericsson.ei.jmespath;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import io.burt.jmespath.Expression;
+
+/**
+ * A bounded, thread-safe cache of compiled JMESPath expressions keyed by the
+ * expression text.
+ *
+ * <p>
+ * Lookups are lock free. When the cache is full an entry is evicted using the
+ * CLOCK (second chance) algorithm: entries that have been read since the last
+ * sweep are kept, so the rules used for every event stay cached while one-off
+ * expressions, such as rules with a substituted event id, are evicted first.
+ * </p>
+ *
+ * @param <T> the type of the values the expressions are evaluated on
+ */
+public class CompiledExpressionCache<T> {
+
+    private final int maximumSize;
+    private final ConcurrentHashMap<String, Entry<T>> entries = new ConcurrentHashMap<>();
+    private final Queue<Entry<T>> clock = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CompiledExpressionCache(int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be at least 1, was " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Returns the compiled expression for the given text, compiling and caching it
+     * if it has not been seen before. Expressions that fail to compile are not
+     * cached, the exception thrown by the compiler is propagated to the caller.
+     *
+     * @param expressionText the JMESPath expression
+     * @param compiler       used to compile the expression on a cache miss
+     * @return the compiled expression
+     */
+    public Expression<T> get(String expressionText, Function<String, Expression<T>> compiler) {
+        Entry<T> entry = entries.get(expressionText);
+        if (entry != null) {
+            hits.increment();
+            entry.referenced = true;
+            return entry.expression;
+        }
+
+        misses.increment();
+        Entry<T> created = new Entry<>(expressionText, compiler.apply(expressionText));
+        Entry<T> existing = entries.putIfAbsent(expressionText, created);
+        if (existing != null) {
+            return existing.expression;
+        }
+        clock.add(created);
+        if (size.incrementAndGet() > maximumSize) {
+            evict();
+        }
+        return created.expression;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public int getSize() {
+        return size.get();
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Removes all cached expressions. The statistics are kept.
+     */
+    public void clear() {
+        Entry<T> entry;
+        while ((entry = clock.poll()) != null) {
+            if (entries.remove(entry.key, entry)) {
+                size.decrementAndGet();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CompiledExpressionCache[size=%d, maximumSize=%d, hits=%d, misses=%d, evictions=%d]",
+                getSize(), maximumSize, getHitCount(), getMissCount(), getEvictionCount());
+    }
+
+    private void evict() {
+        while (size.get() > maximumSize) {
+            Entry<T> candidate = clock.poll();
+            if (candidate == null) {
+                return;
+            }
+            if (candidate.referenced) {
+                candidate.referenced = false;
+                clock.add(candidate);
+            } else if (entries.remove(candidate.key, candidate)) {
+                size.decrementAndGet();
+                evictions.increment();
+            }
+        }
+    }
+
+    private static final class Entry<T> {
+        private final String key;
+        private final Expression<T> expression;
+        private volatile boolean referenced;
+
+        private Entry(String key, Expression<T> expression) {
+            this.key = key;
+            this.expression = expression;
+        }
+    }
+}
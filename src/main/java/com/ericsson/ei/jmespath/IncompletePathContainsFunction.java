@@ -1,10 +1,13 @@
 package com.ericsson.ei.jmespath;
 
-import com.github.wnameless.json.flattener.JsonFlattener;
-
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
+import com.fasterxml.jackson.databind.JsonNode;
+
 import io.burt.jmespath.Adapter;
 import io.burt.jmespath.JmesPathType;
 import io.burt.jmespath.function.ArgumentConstraints;
@@ -13,6 +16,9 @@ import io.burt.jmespath.function.FunctionArgument;
 
 public class IncompletePathContainsFunction extends BaseFunction {
 
+    private final JsonNodeIndexCache<Map<String, List<String>>> indexCache = new JsonNodeIndexCache<>(
+            IncompletePathContainsFunction::flatten);
+
     public IncompletePathContainsFunction() {
         super(ArgumentConstraints.listOf(ArgumentConstraints.typeOf(JmesPathType.OBJECT),
                 ArgumentConstraints.typeOf(JmesPathType.STRING), ArgumentConstraints.typeOf(JmesPathType.STRING)));
@@ -42,40 +48,71 @@ public class IncompletePathContainsFunction extends BaseFunction {
         T pathArgument = arguments.get(1).value();
         T pathValueArgument = arguments.get(2).value();
 
-        String object = runtime.toString(objectArgument);
         String path = runtime.toString(pathArgument);
         String pathValue = runtime.toString(pathValueArgument);
         String[] pathPair = path.split(":");
         String pathKey = pathPair[0];
         String[] pathParts = pathKey.split("\\.");
 
-        boolean result = objectContainsIncompletePathWithValue(object, pathParts, pathValue);
+        Map<String, List<String>> pathsByValue = indexCache.get(runtime, objectArgument);
+        boolean result = objectContainsIncompletePathWithValue(pathsByValue, pathParts, pathValue);
 
         return runtime.createBoolean(result);
     }
 
-    private boolean objectContainsIncompletePathWithValue(String object, String[] pathParts, String pathValue) {
-        Map<String, Object> flattenJson = JsonFlattener.flattenAsMap(object);
-
-        for (Map.Entry<String, Object> entry : flattenJson.entrySet()) {
-            String entryKey = entry.getKey();
-            Object entryValue = entry.getValue();
-            String entryValueString = "";
-            if (entryValue != null) {
-                entryValueString = entryValue.toString();
-
-                if (entryValueString.equals(pathValue)) {
-                    int lastPosition = getValidKeySequencePosition(pathParts, entryKey);
-                    // all path parts found and in right order
-                    if (lastPosition >= 0)
-                        return true;
-                }
-            }
+    private boolean objectContainsIncompletePathWithValue(Map<String, List<String>> pathsByValue, String[] pathParts,
+            String pathValue) {
+        List<String> entryKeys = pathsByValue.get(pathValue);
+        if (entryKeys == null) {
+            return false;
+        }
+
+        for (String entryKey : entryKeys) {
+            int lastPosition = getValidKeySequencePosition(pathParts, entryKey);
+            // all path parts found and in right order
+            if (lastPosition >= 0)
+                return true;
         }
 
         return false;
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * Walks the object and groups the flattened paths, written like a.b[0].c,
+     * by the value they lead to. Null values never match and are left out.
+     */
+    private static Map<String, List<String>> flatten(JsonNode object) {
+        Map<String, List<String>> pathsByValue = new HashMap<>();
+        addPaths("", object, pathsByValue);
+        return pathsByValue;
+    }
+
+    private static void addPaths(String path, JsonNode node, Map<String, List<String>> pathsByValue) {
+        if (node.isObject() && node.size() > 0) {
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                addPaths(fieldPath(path, field.getKey()), field.getValue(), pathsByValue);
+            }
+        } else if (node.isArray() && node.size() > 0) {
+            for (int i = 0; i < node.size(); i++) {
+                addPaths(path + "[" + i + "]", node.get(i), pathsByValue);
+            }
+        } else if (!node.isNull() && !path.isEmpty()) {
+            String value = node.isContainerNode() ? node.toString() : node.asText();
+            pathsByValue.computeIfAbsent(value, v -> new ArrayList<>()).add(path);
+        }
+    }
+
+    private static String fieldPath(String path, String key) {
+        if (key.indexOf('.') >= 0 || key.indexOf('[') >= 0 || key.indexOf(']') >= 0) {
+            return path + "[\"" + key + "\"]";
+        }
+        return path.isEmpty() ? key : path + "." + key;
+    }
+
     private int getLastKeyPosition(int lastPosition, int position, String pathPart) {
         if (position > lastPosition) {
             return position + pathPart.length();
@@ -90,6 +127,10 @@ public class IncompletePathContainsFunction extends BaseFunction {
         int lastPosition = -1;
         for (String pathPart : pathParts) {
             int position = entryKey.indexOf(pathPart, lastPosition);
+            if (position < 0) {
+                lastPosition = -1;
+                break;
+            }
             if (index > 0) {
                 // a path part should be followed by a dot in
                 // the entry key
@@ -22,14 +22,8 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
-import org.skyscreamer.jsonassert.JSONParser;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.fasterxml.jackson.databind.JsonNode;
 
 import io.burt.jmespath.Adapter;
 import io.burt.jmespath.JmesPathType;
@@ -39,7 +33,8 @@ import io.burt.jmespath.function.FunctionArgument;
 
 public class IncompletePathFilterFunction extends BaseFunction {
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(IncompletePathFilterFunction.class);
+    private final JsonNodeIndexCache<List<FlattenedEntry>> indexCache = new JsonNodeIndexCache<>(
+            IncompletePathFilterFunction::flatten);
 
     public IncompletePathFilterFunction() {
         super(ArgumentConstraints.listOf(ArgumentConstraints.typeOf(JmesPathType.OBJECT), ArgumentConstraints.typeOf(JmesPathType.STRING)));
@@ -59,11 +54,11 @@ public class IncompletePathFilterFunction extends BaseFunction {
         T value1 = arguments.get(0).value();
         T value2 = arguments.get(1).value();
 
-        String object = runtime.toString(value1);
         String key = runtime.toString(value2);
+        List<FlattenedEntry> flattJson = indexCache.get(runtime, value1);
 
         T result = null;
-        List<String> resultArray = filterObjectWithIncompletePath(object, key);
+        List<String> resultArray = filterObjectWithIncompletePath(flattJson, key);
         if (resultArray == null || resultArray.isEmpty()) {
             result = runtime.createString(null);
         } else if (resultArray.size() == 1) {
@@ -78,10 +73,10 @@ public class IncompletePathFilterFunction extends BaseFunction {
     /*
      * (non-Javadoc)
      *
-     * Flatten an object and creates a list with the parts of search key. Returns array that contains filtered values.
+     * Creates a list with the parts of search key and filters the flattened object with it. Returns array that contains
+     * filtered values.
      */
-    private List<String> filterObjectWithIncompletePath(String object, String key) {
-        Map<String, Object> flattJson = flatten(object);
+    private List<String> filterObjectWithIncompletePath(List<FlattenedEntry> flattJson, String key) {
         List<String> resultArray = new ArrayList<>();
         List<String> keyParts = Arrays.asList(key.split("\\."));
         resultArray = updateResultArray(resultArray, flattJson, keyParts);
@@ -89,8 +84,8 @@ public class IncompletePathFilterFunction extends BaseFunction {
         return resultArray;
     }
 
-    private List<String> updateResultArray(List<String> resultArray, Map<String, Object> flattJson, List<String> keyParts) {
-        for (Entry<String, Object> elementOfSet : flattJson.entrySet()) {
+    private List<String> updateResultArray(List<String> resultArray, List<FlattenedEntry> flattJson, List<String> keyParts) {
+        for (FlattenedEntry elementOfSet : flattJson) {
             resultArray = filterPathsThatContainSearchKey(resultArray, elementOfSet, keyParts);
         }
         return resultArray;
@@ -102,13 +97,13 @@ public class IncompletePathFilterFunction extends BaseFunction {
      * To minimize the amount of tested paths, an if statement checks if the current path ends with required key. Loop loops through the list with
      * parts of search key. Returns array that contains filtered values.
      */
-    private List<String> filterPathsThatContainSearchKey(List<String> resultArray, Entry<String, Object> elementOfSet, List<String> keyParts) {
+    private List<String> filterPathsThatContainSearchKey(List<String> resultArray, FlattenedEntry elementOfSet, List<String> keyParts) {
         String elementKey = elementOfSet.getKey();
-        List<String> elementKeyParts = Arrays.asList(elementKey.split("\\."));
         int index = 0;
         int lastPartIndex = keyParts.size() - 1;
         String ending = keyParts.get(lastPartIndex);
         if (elementKey.endsWith(ending)) {
+            List<String> elementKeyParts = elementOfSet.getKeyParts();
             for (int i = 0; i < keyParts.size(); i++) {
                 String keyPart = keyParts.get(i);
                 int tempIndex = -1;
@@ -163,10 +158,10 @@ public class IncompletePathFilterFunction extends BaseFunction {
         return false;
     }
 
-    private List<String> updateResultIfEndOfPath(int index, List<String> elementKeyParts, String ending, Entry<String, Object> elementOfSet,
+    private List<String> updateResultIfEndOfPath(int index, List<String> elementKeyParts, String ending, FlattenedEntry elementOfSet,
                                   List<String> resultArray) {
         if (index == elementKeyParts.indexOf(ending)) {
-            resultArray = addValueToResultArray(elementOfSet, resultArray);
+            resultArray.add(elementOfSet.getValue());
         }
         return resultArray;
     }
@@ -174,56 +169,78 @@ public class IncompletePathFilterFunction extends BaseFunction {
     /*
      * (non-Javadoc)
      *
-     * If value is null, it creates a string with null as text and adds it to resultArray, in other case it adds value.
+     * Flatten object and creates all possible key combinations (In correct order) with values.
+     * Ex. a = {b.c.d}; a.b = {c.d}, etc. The entries are collected by key in a HashMap, which gives
+     * the order of the values when several of them match.
      */
-    private List<String> addValueToResultArray(Entry<String, Object> elementOfSet, List<String> resultArray) {
-        if (elementOfSet.getValue() == null) {
-            resultArray.add("null");
-        } else {
-            resultArray.add(elementOfSet.getValue().toString());
-        }
-        return resultArray;
+    private static List<FlattenedEntry> flatten(JsonNode object) {
+        Map<String, FlattenedEntry> result = new HashMap<>();
+        addKeys("", new ArrayList<>(), object, result);
+        return new ArrayList<>(result.values());
     }
 
     /*
      * (non-Javadoc)
      *
-     * Flatten object and creates all possible key combinations (In correct order) with values.
-     * Ex. a = {b.c.d}; a.b = {c.d}, etc.
+     * Iterate through an object and adds, its keys combinations together with values, to a map. The parts of
+     * each key are recorded on the way down. Only the objects in arrays are walked into.
      */
-    private Map<String, Object> flatten(String object) {
-        Map<String, Object> result = new HashMap<>();
-        try {
-            result = addKeys("", result, object);
-        } catch (Exception e) {
-            LOGGER.error("Failed to flatten an object.", e);
+    private static void addKeys(String prevKey, List<String> prevKeyParts, JsonNode object,
+            Map<String, FlattenedEntry> result) {
+        Iterator<Map.Entry<String, JsonNode>> fields = object.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            String key = prevKey + field.getKey();
+            List<String> keyParts = new ArrayList<>(prevKeyParts);
+            keyParts.addAll(Arrays.asList(field.getKey().split("\\.")));
+            JsonNode value = field.getValue();
+            result.put(key, new FlattenedEntry(key, keyParts, value));
+            if (value.isObject()) {
+                addKeys(key + ".", keyParts, value, result);
+            } else if (value.isArray()) {
+                int last = keyParts.size() - 1;
+                for (int i = 0; i < value.size(); i++) {
+                    if (value.get(i).isObject()) {
+                        List<String> elementKeyParts = new ArrayList<>(keyParts);
+                        elementKeyParts.set(last, keyParts.get(last) + "[" + i + "]");
+                        addKeys(key + "[" + i + "].", elementKeyParts, value.get(i), result);
+                    }
+                }
+            }
         }
-        return result;
     }
 
     /*
      * (non-Javadoc)
      *
-     * Iterate through an object and adds, its keys combinations together with values, to a map.
+     * A flattened key with its parts and value. The value text is computed when first needed and kept
+     * while the flattened object is cached.
      */
-    private Map<String, Object> addKeys(String prevKey, Map<String, Object> result, String object) {
-        try {
-            JSONObject json = (JSONObject) JSONParser.parseJSON(object);
-            Iterator<?> iter = json.keys();
-            while (iter.hasNext()) {
-                String key = iter.next().toString();
-                result.put(prevKey + key, json.get(key));
-                if (json.get(key) instanceof JSONObject) {
-                    result = addKeys(prevKey + key + ".", result, json.get(key).toString());
-                } else if (json.get(key) instanceof JSONArray) {
-                    for (int i = 0; i < ((JSONArray) json.get(key)).length(); i++) {
-                        result = addKeys(prevKey + key + "[" + i + "].", result, ((JSONArray) json.get(key)).get(i).toString());
-                    }
-                }
+    private static final class FlattenedEntry {
+        private final String key;
+        private final List<String> keyParts;
+        private final JsonNode node;
+        private volatile String value;
+
+        private FlattenedEntry(String key, List<String> keyParts, JsonNode node) {
+            this.key = key;
+            this.keyParts = keyParts;
+            this.node = node;
+        }
+
+        private String getKey() {
+            return key;
+        }
+
+        private List<String> getKeyParts() {
+            return keyParts;
+        }
+
+        private String getValue() {
+            if (value == null) {
+                value = node.isContainerNode() ? node.toString() : node.asText();
             }
-        } catch (JSONException e) {
-            LOGGER.error("Failed to add key.", e);
+            return value;
         }
-        return result;
     }
 }
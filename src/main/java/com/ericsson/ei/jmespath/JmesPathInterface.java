@@ -18,6 +18,8 @@ package com.ericsson.ei.jmespath;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import com.fasterxml.jackson.databind.JsonNode;
@@ -38,9 +40,21 @@ public class JmesPathInterface {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(JmesPathInterface.class);
 
+    public static final int DEFAULT_EXPRESSION_CACHE_SIZE = 1024;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
     private JmesPath<JsonNode> jmespath;
 
+    private final CompiledExpressionCache<JsonNode> expressionCache;
+
     public JmesPathInterface() {
+        this(DEFAULT_EXPRESSION_CACHE_SIZE);
+    }
+
+    @Autowired
+    public JmesPathInterface(@Value("${jmespath.expression.cache.size:" + DEFAULT_EXPRESSION_CACHE_SIZE
+            + "}") int expressionCacheSize) {
         FunctionRegistry defaultFunctions = FunctionRegistry.defaultRegistry();
         FunctionRegistry customFunctions = defaultFunctions.extend(new DiffFunction());
         customFunctions = customFunctions.extend(new IncompletePathContainsFunction());
@@ -48,6 +62,31 @@ public class JmesPathInterface {
         customFunctions = customFunctions.extend(new SplitFunction());
         customFunctions = customFunctions.extend(new MatchFunction());
         jmespath = new JacksonRuntime(customFunctions);
+        expressionCache = new CompiledExpressionCache<>(expressionCacheSize);
+    }
+
+    /**
+     * Returns the compiled form of the given JMESPath expression. Expressions are
+     * compiled once and then served from a bounded cache. Simple field paths and
+     * filters are compiled into direct walks over the JSON tree, see
+     * {@link SimpleExpressionCompiler}.
+     *
+     * @param rule
+     *     the JMESPath expression
+     * @return compiled expression
+     * */
+    public Expression<JsonNode> compile(String rule) {
+        return expressionCache.get(rule, this::compileExpression);
+    }
+
+    /**
+     * Returns the cache holding the compiled expressions, giving access to the
+     * hit, miss and eviction counters.
+     *
+     * @return the compiled expression cache
+     * */
+    public CompiledExpressionCache<JsonNode> getExpressionCache() {
+        return expressionCache;
     }
 
     /**
@@ -68,17 +107,99 @@ public class JmesPathInterface {
             }
         }
 
-        ObjectMapper objectMapper = new ObjectMapper();
-
         try {
-            Expression<JsonNode> expression = jmespath.compile(rule);
-            JsonNode eventJson = objectMapper.readValue(event, JsonNode.class);
-            result = expression.search(eventJson);
-            LOGGER.debug("Expression : {} \n RESULT VALUE FROM JMESPATH : {}", expression, result);
+            JsonNode eventJson = OBJECT_MAPPER.readValue(event, JsonNode.class);
+            result = search(rule, eventJson);
         } catch (Exception e) {
             LOGGER.error("Failed to run rule on event.\nRule: {}\nEvent: {}", rule, event, e);
         }
 
         return result;
     }
+
+    /**
+     * This method makes use of the JMESPath to compile the expression and then
+     * searches for this expression in the given, already parsed, JSON structure.
+     * Unlike {@link #runRuleOnEvent(String, String)} the JSON is not parsed again.
+     *
+     * @param rule
+     * @param json
+     * @return result
+     *     JSONNode of the result from the JMESPath expression search
+     * */
+    public JsonNode runRuleOnJson(String rule, JsonNode json) {
+        JsonNode result = JsonNodeFactory.instance.nullNode();
+        if (rule == null || rule.isEmpty() || json == null) {
+            return result;
+        }
+
+        try {
+            result = search(rule, json);
+        } catch (Exception e) {
+            LOGGER.error("Failed to run rule on event.\nRule: {}\nEvent: {}", rule, json, e);
+        }
+
+        return result;
+    }
+
+    /**
+     * Searches for an already compiled expression in the given JSON structure.
+     *
+     * @param expression
+     * @param json
+     * @return result
+     *     JSONNode of the result from the JMESPath expression search
+     * */
+    public JsonNode runExpressionOnJson(Expression<JsonNode> expression, JsonNode json) {
+        JsonNode result = JsonNodeFactory.instance.nullNode();
+        if (expression == null || json == null) {
+            return result;
+        }
+
+        try {
+            result = expression.search(json);
+        } catch (Exception e) {
+            LOGGER.error("Failed to run rule on event.\nRule: {}\nEvent: {}", expression, json, e);
+        }
+
+        return result;
+    }
+
+    /**
+     * Searches for an already compiled expression in the given JSON string.
+     *
+     * @param expression
+     * @param event
+     * @return result
+     *     JSONNode of the result from the JMESPath expression search
+     * */
+    public JsonNode runExpressionOnEvent(Expression<JsonNode> expression, String event) {
+        JsonNode result = JsonNodeFactory.instance.nullNode();
+        if (event == null || event.isEmpty()) {
+            return result;
+        }
+
+        try {
+            result = runExpressionOnJson(expression, OBJECT_MAPPER.readValue(event, JsonNode.class));
+        } catch (Exception e) {
+            LOGGER.error("Failed to run rule on event.\nRule: {}\nEvent: {}", expression, event, e);
+        }
+
+        return result;
+    }
+
+    private Expression<JsonNode> compileExpression(String rule) {
+        Expression<JsonNode> expression = SimpleExpressionCompiler.compile(rule);
+        if (expression == null) {
+            expression = jmespath.compile(rule);
+        }
+        return expression;
+    }
+
+    private JsonNode search(String rule, JsonNode event) {
+        Expression<JsonNode> expression = compile(rule);
+        JsonNode result = expression.search(event);
+        LOGGER.debug("Expression : {} \n RESULT VALUE FROM JMESPATH : {}", expression, result);
+        return result;
+    }
 }
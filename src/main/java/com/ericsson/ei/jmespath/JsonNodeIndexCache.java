@@ -0,0 +1,139 @@
+/*
+   Copyright 2026 Ericsson AB.
+   For a full list of individual contributors, please see the commit history.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.ericsson.ei.jmespath;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.burt.jmespath.Adapter;
+
+/**
+ * Remembers the indexes a JMESPath function built for the JSON values it was
+ * called with most recently. The subscriptions checked for an aggregated object
+ * share one parsed tree and call the same functions on it, on whichever threads
+ * they run, and the index is then built only once for that tree.
+ *
+ * <p>
+ * Values are compared by identity, so the cache relies on the JSON trees given
+ * to JMESPath not being modified after they have been searched, which holds for
+ * the trees shared through {@link com.ericsson.ei.handlers.EventContext}. At
+ * most {@value #CAPACITY} values are remembered, the least recently used one is
+ * dropped first, and the values are only weakly referenced so that the cache
+ * never keeps a tree alive. Values of runtimes other than the Jackson runtime
+ * are indexed from their JSON text.
+ * </p>
+ *
+ * @param <I> the type of the index
+ */
+final class JsonNodeIndexCache<I> {
+
+    static final int CAPACITY = 16;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Deque<Entry<I>> entries = new ArrayDeque<>();
+    private final Function<JsonNode, I> indexer;
+
+    /**
+     * @param indexer builds the index of a JSON tree
+     */
+    JsonNodeIndexCache(Function<JsonNode, I> indexer) {
+        this.indexer = indexer;
+    }
+
+    /**
+     * Returns the index for the given value, building it if it is not one of the
+     * values indexed most recently. Two threads missing the same value at the
+     * same time both build the index, and the last one built is kept.
+     *
+     * @param runtime the runtime the value belongs to
+     * @param value   the value the function was called with
+     * @return the index for the value
+     */
+    <T> I get(Adapter<T> runtime, T value) {
+        I index = find(value);
+        if (index == null) {
+            index = indexer.apply(toJsonNode(runtime, value));
+            add(value, index);
+        }
+        return index;
+    }
+
+    private I find(Object value) {
+        lock.lock();
+        try {
+            Iterator<Entry<I>> iterator = entries.iterator();
+            while (iterator.hasNext()) {
+                Entry<I> entry = iterator.next();
+                Object entryValue = entry.value.get();
+                if (entryValue == value) {
+                    iterator.remove();
+                    entries.addFirst(entry);
+                    return entry.index;
+                } else if (entryValue == null) {
+                    iterator.remove();
+                }
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void add(Object value, I index) {
+        lock.lock();
+        try {
+            entries.removeIf(entry -> entry.value.get() == value);
+            entries.addFirst(new Entry<>(value, index));
+            if (entries.size() > CAPACITY) {
+                entries.removeLast();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static <T> JsonNode toJsonNode(Adapter<T> runtime, T value) {
+        if (value instanceof JsonNode) {
+            return (JsonNode) value;
+        }
+        try {
+            return OBJECT_MAPPER.readTree(runtime.toString(value));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Value is not JSON: " + e.getMessage(), e);
+        }
+    }
+
+    private static final class Entry<I> {
+        private final WeakReference<Object> value;
+        private final I index;
+
+        private Entry(Object value, I index) {
+            this.value = new WeakReference<>(value);
+            this.index = index;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+/*
+   Copyright 2026 Ericsson AB.
+   For a full list of individual contributors, please see the commit history.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.ericsson.ei.jmespath;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import io.burt.jmespath.Expression;
+
+/**
+ * Compiles the most common shapes of JMESPath expressions used in rules and
+ * subscriptions into direct walks over the JSON tree, without going through the
+ * JMESPath interpreter. The supported shapes are:
+ *
+ * <ul>
+ * <li>the current node: <code>@</code></li>
+ * <li>field paths: <code>meta.id</code></li>
+ * <li>lists of field paths: <code>[meta.id]</code></li>
+ * <li>filters comparing a field with a string:
+ * <code>links | [?type=='CAUSE'].target</code> or
+ * <code>links[?type=='CAUSE'].target</code></li>
+ * </ul>
+ *
+ * The results are the same as from the interpreter, including null for missing
+ * fields and the removal of null values from filter projections. Any other
+ * expression is left to the interpreter.
+ */
+public final class SimpleExpressionCompiler {
+
+    private static final String IDENTIFIER = "[A-Za-z_][A-Za-z0-9_]*";
+    private static final String PATH = IDENTIFIER + "(?:\\s*\\.\\s*" + IDENTIFIER + ")*";
+    private static final String RAW_STRING = "'((?:[^'\\\\])*)'";
+
+    private static final Pattern CURRENT_NODE = Pattern.compile("\\s*@\\s*");
+    private static final Pattern FIELD_PATH = Pattern.compile("\\s*(" + PATH + ")\\s*");
+    private static final Pattern PATH_LIST = Pattern.compile(
+            "\\s*\\[\\s*(" + PATH + "(?:\\s*,\\s*" + PATH + ")*)\\s*\\]\\s*");
+    private static final Pattern FILTER = Pattern.compile(
+            "\\s*(" + PATH + ")\\s*(?:\\|\\s*)?\\[\\s*\\?\\s*(" + PATH + ")\\s*==\\s*" + RAW_STRING
+                    + "\\s*\\]\\s*((?:\\.\\s*" + PATH + ")?)\\s*");
+
+    private SimpleExpressionCompiler() {
+    }
+
+    /**
+     * Compiles the expression if it has one of the supported shapes.
+     *
+     * @param expression the JMESPath expression
+     * @return the compiled expression, or null if the expression must be compiled
+     *         by the interpreter
+     */
+    public static Expression<JsonNode> compile(String expression) {
+        if (expression == null) {
+            return null;
+        }
+        if (CURRENT_NODE.matcher(expression).matches()) {
+            return new CurrentNodeExpression();
+        }
+        Matcher matcher = FIELD_PATH.matcher(expression);
+        if (matcher.matches()) {
+            return new FieldPathExpression(expression, splitPath(matcher.group(1)));
+        }
+        matcher = PATH_LIST.matcher(expression);
+        if (matcher.matches()) {
+            String[] paths = matcher.group(1).split(",");
+            String[][] fields = new String[paths.length][];
+            for (int i = 0; i < paths.length; i++) {
+                fields[i] = splitPath(paths[i]);
+            }
+            return new PathListExpression(expression, fields);
+        }
+        matcher = FILTER.matcher(expression);
+        if (matcher.matches()) {
+            String projection = matcher.group(4).trim();
+            String[] projectionPath = projection.isEmpty() ? new String[0]
+                    : splitPath(projection.substring(1));
+            return new FilterExpression(expression, splitPath(matcher.group(1)), splitPath(matcher.group(2)),
+                    new TextNode(matcher.group(3)), projectionPath);
+        }
+        return null;
+    }
+
+    private static String[] splitPath(String path) {
+        String[] fields = path.split("\\.");
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = fields[i].trim();
+        }
+        return fields;
+    }
+
+    private static JsonNode walk(JsonNode input, String[] fields) {
+        JsonNode current = input;
+        for (String field : fields) {
+            if (current == null || !current.isObject()) {
+                return NullNode.getInstance();
+            }
+            current = current.get(field);
+        }
+        return current == null ? NullNode.getInstance() : current;
+    }
+
+    private static boolean isNull(JsonNode node) {
+        return node == null || node.isNull() || node.isMissingNode();
+    }
+
+    private static final class CurrentNodeExpression implements Expression<JsonNode> {
+        @Override
+        public JsonNode search(JsonNode input) {
+            return input;
+        }
+
+        @Override
+        public String toString() {
+            return "@";
+        }
+    }
+
+    private static final class FieldPathExpression implements Expression<JsonNode> {
+        private final String expression;
+        private final String[] fields;
+
+        private FieldPathExpression(String expression, String[] fields) {
+            this.expression = expression;
+            this.fields = fields;
+        }
+
+        @Override
+        public JsonNode search(JsonNode input) {
+            return walk(input, fields);
+        }
+
+        @Override
+        public String toString() {
+            return expression;
+        }
+    }
+
+    private static final class PathListExpression implements Expression<JsonNode> {
+        private final String expression;
+        private final String[][] paths;
+
+        private PathListExpression(String expression, String[][] paths) {
+            this.expression = expression;
+            this.paths = paths;
+        }
+
+        @Override
+        public JsonNode search(JsonNode input) {
+            if (isNull(input)) {
+                return NullNode.getInstance();
+            }
+            ArrayNode result = JsonNodeFactory.instance.arrayNode();
+            for (String[] path : paths) {
+                result.add(walk(input, path));
+            }
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return expression;
+        }
+    }
+
+    private static final class FilterExpression implements Expression<JsonNode> {
+        private final String expression;
+        private final String[] arrayPath;
+        private final String[] conditionPath;
+        private final JsonNode conditionValue;
+        private final String[] projectionPath;
+
+        private FilterExpression(String expression, String[] arrayPath, String[] conditionPath,
+                JsonNode conditionValue, String[] projectionPath) {
+            this.expression = expression;
+            this.arrayPath = arrayPath;
+            this.conditionPath = conditionPath;
+            this.conditionValue = conditionValue;
+            this.projectionPath = projectionPath;
+        }
+
+        @Override
+        public JsonNode search(JsonNode input) {
+            JsonNode array = walk(input, arrayPath);
+            if (!array.isArray()) {
+                return NullNode.getInstance();
+            }
+            ArrayNode result = JsonNodeFactory.instance.arrayNode();
+            for (JsonNode element : array) {
+                if (!conditionValue.equals(walk(element, conditionPath))) {
+                    continue;
+                }
+                JsonNode value = projectionPath.length == 0 ? element : walk(element, projectionPath);
+                if (!isNull(value)) {
+                    result.add(value);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return expression;
+        }
+    }
+}
@@ -16,6 +16,7 @@
 */
 package com.ericsson.ei.jsonmerge;
 
+import java.io.IOException;
 import java.util.Iterator;
 
 import org.json.JSONArray;
@@ -28,17 +29,22 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import com.ericsson.ei.exception.MongoDBConnectionException;
+import com.ericsson.ei.handlers.EventContext;
 import com.ericsson.ei.handlers.ObjectHandler;
 import com.ericsson.ei.jmespath.JmesPathInterface;
 import com.ericsson.ei.rules.RulesHandler;
+import com.ericsson.ei.rules.RuleTemplate;
 import com.ericsson.ei.rules.RulesObject;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.mongodb.MongoExecutionTimeoutException;
 
 @Component
 public class MergeHandler {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MergeHandler.class);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
     @Value("${rules.replacement.marker}")
     private String replacementMarker;
@@ -78,6 +84,20 @@ public class MergeHandler {
      */
     public String mergeObject(String id, String mergeId, RulesObject rules, String event, JsonNode objectToMerge) 
             throws MongoExecutionTimeoutException, MongoDBConnectionException {
+        return mergeObject(id, mergeId, rules, EventContext.fromString(event), objectToMerge);
+    }
+
+    /**
+     * @param id            the id of the aggregated object
+     * @param mergeId       the id of the link used to identify this aggregated
+     *                      object
+     * @param rules         the current rules for the received event
+     * @param event         the received event
+     * @param objectToMerge the object to be merged
+     * @return the aggregated object updated with the objectToMerge
+     */
+    public String mergeObject(String id, String mergeId, RulesObject rules, EventContext event, JsonNode objectToMerge)
+            throws MongoExecutionTimeoutException, MongoDBConnectionException {
         String mergedObject = null;
         String preparedToMergeObject;
         try {
@@ -89,9 +109,7 @@ public class MergeHandler {
 	        }
             String mergeRule = getMergeRules(rules);
             if (mergeRule != null && !mergeRule.isEmpty()) {
-                String updatedRule = replaceIdMarkerInRules(mergeRule, mergeId);
-                // populate the rule with data from event
-                String ruleForMerge = jmesPathInterface.runRuleOnEvent(updatedRule, event).toString();
+                String ruleForMerge = getRuleForMerge(rules, mergeRule, mergeId, event);
                 // compute the path where to insert the object
                 String mergePath = prepareMergePrepareObject.getMergePath(aggregatedObject, ruleForMerge, false);
                 // inflate the object to be merged with levels from merge path
@@ -153,6 +171,40 @@ public class MergeHandler {
         return rules.getMergeRules();
     }
 
+    /**
+     * Populates the merge rule with data from the event. A merge rule containing
+     * the replacement marker is a JSON literal once the marker is replaced, so it
+     * is rendered from the template prepared when the rules were loaded and parsed
+     * as JSON instead of being compiled as a new JMESPath expression for every id.
+     *
+     * @param rules     the current rules for the received event
+     * @param mergeRule the merge rule
+     * @param mergeId   the id to replace the marker with
+     * @param event     the received event
+     * @return the merge rule populated with data from the event
+     */
+    private String getRuleForMerge(RulesObject rules, String mergeRule, String mergeId, EventContext event) {
+        RuleTemplate template = rules.getMergeRulesTemplate();
+        if (!mergeRule.equals(template.getRule()) || !replacementMarker.equals(template.getMarker())) {
+            template = new RuleTemplate(mergeRule, replacementMarker);
+        }
+        if (!template.containsMarker()) {
+            return event.runRule(mergeRule, jmesPathInterface).toString();
+        }
+        String updatedRule = template.render("\"" + mergeId + "\"");
+        // Remembered under the equivalent JMESPath literal expression
+        return event.getRuleResult("`" + updatedRule + "`", rule -> parseMergeRule(updatedRule)).toString();
+    }
+
+    private JsonNode parseMergeRule(String updatedRule) {
+        try {
+            return OBJECT_MAPPER.readTree(updatedRule);
+        } catch (IOException e) {
+            LOGGER.error("Failed to parse merge rule.\nRule: {}", updatedRule, e);
+            return JsonNodeFactory.instance.nullNode();
+        }
+    }
+
     /**
      * The merge rule can contain a placeholder for the ids extracted from IdentifyRules.
      * This placeholder need to be replaced with an id from the ones extracted with
@@ -281,6 +333,11 @@ public class MergeHandler {
 
     public String addNewObject(String event, JsonNode newObject, RulesObject rulesObject)
             throws MongoDBConnectionException {
+        return addNewObject(EventContext.fromString(event), newObject, rulesObject);
+    }
+
+    public String addNewObject(EventContext event, JsonNode newObject, RulesObject rulesObject)
+            throws MongoDBConnectionException {
         return objectHandler.insertObject(newObject, rulesObject, event, null);
     }
 }
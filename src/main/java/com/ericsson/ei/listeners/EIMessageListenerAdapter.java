@@ -16,16 +16,46 @@
 */
 package com.ericsson.ei.listeners;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.listener.adapter.MessageListenerAdapter;
+import org.springframework.core.task.TaskRejectedException;
 
 import com.ericsson.ei.handlers.EventHandler;
+import com.ericsson.ei.handlers.EventLaneExecutor;
+import com.ericsson.ei.handlers.RMQProperties;
 import com.rabbitmq.client.Channel;
 
 public class EIMessageListenerAdapter extends MessageListenerAdapter {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(EIMessageListenerAdapter.class);
+
+    private final EventLaneExecutor eventLaneExecutor;
+    private final boolean processInListener;
+    private final RMQProperties rmqProperties;
+
     public EIMessageListenerAdapter(Object delegate) {
+        this(delegate, null, false, null);
+    }
+
+    /**
+     * Creates an adapter choosing how events are processed.
+     *
+     * @param delegate          the EventHandler
+     * @param eventLaneExecutor the lanes to use if they are enabled, or null
+     * @param processInListener true to process events in the listener thread,
+     *                          which takes precedence over lanes
+     * @param rmqProperties     the properties deciding if events received from
+     *                          other queues than the shard queues are moved to
+     *                          the shard queues, or null
+     */
+    public EIMessageListenerAdapter(Object delegate, EventLaneExecutor eventLaneExecutor,
+            boolean processInListener, RMQProperties rmqProperties) {
         super(delegate);
+        this.eventLaneExecutor = eventLaneExecutor;
+        this.processInListener = processInListener;
+        this.rmqProperties = rmqProperties;
     }
 
     @Override
@@ -34,10 +64,30 @@ public class EIMessageListenerAdapter extends MessageListenerAdapter {
         if (delegate != this) {
             if (delegate instanceof EventHandler) {
                 if (channel != null) {
-                    ((EventHandler) delegate).onMessage(message, channel);
+                    EventHandler eventHandler = (EventHandler) delegate;
+                    if (isRoutedToShard(message)) {
+                        eventHandler.onMessageToShard(message, channel);
+                    } else if (processInListener) {
+                        eventHandler.onMessageInListener(message, channel);
+                    } else if (eventLaneExecutor != null && eventLaneExecutor.isEnabled()) {
+                        eventHandler.onMessageInLane(message, channel);
+                    } else {
+                        try {
+                            eventHandler.onMessage(message, channel);
+                        } catch (TaskRejectedException e) {
+                            // The executor is full, the message must still be settled
+                            LOGGER.warn("Event could not be queued for processing, sending it back to the queue.", e);
+                            eventHandler.requeue(message, channel);
+                        }
+                    }
                     return;
                 }
             }
         }
     }
+
+    private boolean isRoutedToShard(Message message) {
+        return rmqProperties != null && rmqProperties.isSharded()
+                && !rmqProperties.isShardQueue(message.getMessageProperties().getConsumerQueue());
+    }
 }
@@ -0,0 +1,128 @@
+/*
+   Copyright 2026 Ericsson AB.
+   For a full list of individual contributors, please see the commit history.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.ericsson.ei.mongo;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import com.ericsson.ei.utils.VirtualThreads;
+
+import lombok.Setter;
+
+/**
+ * Runs MongoDB operations in the background and returns a future for their
+ * result, so the steps of an event that do not depend on each other, like
+ * reading the subscriptions and updating the aggregated object, can wait for
+ * MongoDB at the same time.
+ *
+ * <p>
+ * The operations run on mongodb.async.pool.size threads, or on a virtual thread
+ * each if threads.virtual.enabled is set and the JVM supports them. A pool size
+ * of 0, the default, runs every operation in the calling thread and returns a
+ * completed future.
+ * </p>
+ */
+@Component
+public class AsyncMongoDBHandler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncMongoDBHandler.class);
+
+    @Setter
+    @Value("${mongodb.async.pool.size:0}")
+    private int poolSize;
+
+    @Setter
+    @Value("${mongodb.async.queue.capacity:1000}")
+    private int queueCapacity;
+
+    @Setter
+    @Value("${threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    private Executor executor;
+
+    @PostConstruct
+    public void init() {
+        if (poolSize <= 0) {
+            return;
+        }
+        if (virtualThreadsEnabled) {
+            executor = VirtualThreads.newThreadPerTaskExecutor("MongoDB-");
+            if (executor != null) {
+                LOGGER.info("Running asynchronous MongoDB operations on virtual threads.");
+                return;
+            }
+        }
+        ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+        pool.setCorePoolSize(poolSize);
+        pool.setMaxPoolSize(poolSize);
+        pool.setQueueCapacity(queueCapacity);
+        pool.setThreadNamePrefix("MongoDB-");
+        // A full queue slows down the caller instead of failing the operation
+        pool.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        pool.initialize();
+        executor = pool;
+        LOGGER.info("Running asynchronous MongoDB operations on {} threads.", poolSize);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor instanceof ThreadPoolTaskExecutor) {
+            ((ThreadPoolTaskExecutor) executor).shutdown();
+        } else if (executor instanceof ExecutorService) {
+            ((ExecutorService) executor).shutdown();
+        }
+    }
+
+    /**
+     * Returns true if operations run in the background.
+     *
+     * @return false if operations run in the calling thread
+     */
+    public boolean isEnabled() {
+        return executor != null;
+    }
+
+    /**
+     * Runs an operation in the background.
+     *
+     * @param operation the operation, usually a call to a MongoDBHandler
+     * @return completed with the result of the operation, or exceptionally if it threw
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> operation) {
+        if (executor == null) {
+            try {
+                return CompletableFuture.completedFuture(operation.get());
+            } catch (Exception e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        return CompletableFuture.supplyAsync(operation, executor);
+    }
+}
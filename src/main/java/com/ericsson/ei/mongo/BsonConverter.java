@@ -0,0 +1,189 @@
+/*
+   Copyright 2026 Ericsson AB.
+   For a full list of individual contributors, please see the commit history.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.ericsson.ei.mongo;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.mongodb.BasicDBObject;
+
+/**
+ * Converts between Jackson trees and BSON documents by walking them, instead
+ * of writing one as JSON and parsing the text as the other.
+ *
+ * <p>
+ * The values are converted to the same types as when the JSON is parsed:
+ * integers to Integer or Long, other numbers to Double, objects to Document
+ * and arrays to List. Objects with a field starting with $ may be MongoDB
+ * extended JSON, like {"$date": ...}, and are parsed as text to keep their
+ * meaning.
+ * </p>
+ *
+ * <p>
+ * Documents read from the database are converted to the same trees as when
+ * they are written with {@link BasicDBObject#toString()} and parsed by
+ * Jackson. Values without a JSON type, like dates and object ids, are written
+ * that way one at a time.
+ * </p>
+ */
+public final class BsonConverter {
+
+    private static final String WRAPPER_FIELD = "value";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final JsonNodeFactory NODE_FACTORY = JsonNodeFactory.instance;
+
+    private BsonConverter() {
+    }
+
+    /**
+     * Converts an object node to a document.
+     *
+     * @param node the object to convert
+     * @return a new document
+     * @throws IllegalArgumentException if the node is not an object
+     */
+    public static Document toDocument(JsonNode node) {
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("Only JSON objects can be converted to documents.");
+        }
+        if (hasOperatorField(node)) {
+            return Document.parse(node.toString());
+        }
+        return convertFields(node);
+    }
+
+    /**
+     * Converts a document to an object node.
+     *
+     * @param document the document to convert
+     * @return a new object node
+     */
+    public static ObjectNode toJsonNode(Map<String, Object> document) {
+        ObjectNode node = NODE_FACTORY.objectNode();
+        for (Map.Entry<String, Object> field : document.entrySet()) {
+            node.set(field.getKey(), toNode(field.getValue()));
+        }
+        return node;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static JsonNode toNode(Object value) {
+        if (value == null) {
+            return NODE_FACTORY.nullNode();
+        }
+        if (value instanceof String) {
+            return NODE_FACTORY.textNode((String) value);
+        }
+        if (value instanceof Boolean) {
+            return NODE_FACTORY.booleanNode((Boolean) value);
+        }
+        if (value instanceof Integer) {
+            return NODE_FACTORY.numberNode((Integer) value);
+        }
+        if (value instanceof Long) {
+            long longValue = (Long) value;
+            if (longValue == (int) longValue) {
+                return NODE_FACTORY.numberNode((int) longValue);
+            }
+            return NODE_FACTORY.numberNode(longValue);
+        }
+        if (value instanceof Double && Double.isFinite((Double) value)) {
+            return NODE_FACTORY.numberNode((Double) value);
+        }
+        if (value instanceof Map) {
+            return toJsonNode((Map<String, Object>) value);
+        }
+        if (value instanceof List) {
+            ArrayNode array = NODE_FACTORY.arrayNode(((List<?>) value).size());
+            for (Object element : (List<?>) value) {
+                array.add(toNode(element));
+            }
+            return array;
+        }
+        return writeAndParse(value);
+    }
+
+    private static JsonNode writeAndParse(Object value) {
+        String json = new BasicDBObject(WRAPPER_FIELD, value).toString();
+        try {
+            return OBJECT_MAPPER.readTree(json).get(WRAPPER_FIELD);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to convert value: " + json, e);
+        }
+    }
+
+    private static Document convertFields(JsonNode node) {
+        Document document = new Document();
+        Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            document.put(field.getKey(), toValue(field.getValue()));
+        }
+        return document;
+    }
+
+    private static Object toValue(JsonNode node) {
+        switch (node.getNodeType()) {
+        case OBJECT:
+            if (hasOperatorField(node)) {
+                // Extended JSON may stand for a value that is not a document
+                return Document.parse("{\"" + WRAPPER_FIELD + "\": " + node + "}").get(WRAPPER_FIELD);
+            }
+            return convertFields(node);
+        case ARRAY:
+            List<Object> values = new ArrayList<>(node.size());
+            for (JsonNode element : node) {
+                values.add(toValue(element));
+            }
+            return values;
+        case STRING:
+            return node.textValue();
+        case BOOLEAN:
+            return node.booleanValue();
+        case NUMBER:
+            if (node.canConvertToInt() && node.isIntegralNumber()) {
+                return node.intValue();
+            }
+            if (node.canConvertToLong() && node.isIntegralNumber()) {
+                return node.longValue();
+            }
+            return node.doubleValue();
+        default:
+            return null;
+        }
+    }
+
+    private static boolean hasOperatorField(JsonNode node) {
+        Iterator<String> names = node.fieldNames();
+        while (names.hasNext()) {
+            if (names.next().startsWith("$")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
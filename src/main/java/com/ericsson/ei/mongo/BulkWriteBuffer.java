@@ -0,0 +1,325 @@
+/*
+   Copyright 2026 Ericsson AB.
+   For a full list of individual contributors, please see the commit history.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.ericsson.ei.mongo;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.PreDestroy;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.WriteModel;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Collects the single document writes to secondary collections, like the event
+ * to object map and the failed notifications, and sends them to MongoDB
+ * as unordered bulk writes, one per collection, instead of one request per
+ * write.
+ *
+ * <p>
+ * Writes are sent when mongodb.bulk.write.batch.size writes are waiting for a
+ * collection, and otherwise every mongodb.bulk.write.flush.interval
+ * milliseconds. A batch size of 1 sends every write at once, like before
+ * batching was added, in the background if {@link AsyncMongoDBHandler} is
+ * enabled.
+ * </p>
+ *
+ * <p>
+ * The writes made while an event is processed are tracked, see
+ * {@link #startTracking()}, so the event is only acknowledged when MongoDB has
+ * acknowledged the batches holding its writes, and is sent back to the queue if
+ * one of them failed.
+ * </p>
+ */
+@Component
+public class BulkWriteBuffer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BulkWriteBuffer.class);
+
+    @Getter
+    @Setter
+    @Value("${mongodb.bulk.write.batch.size:1}")
+    private int batchSize;
+
+    @Setter
+    @Autowired
+    private MongoDBHandler mongoDBHandler;
+
+    @Setter
+    @Autowired
+    @Qualifier(MongoClientConfig.RELAXED_WRITE_HANDLER)
+    private MongoDBHandler relaxedWriteMongoDBHandler;
+
+    @Setter
+    @Autowired
+    private AsyncMongoDBHandler asyncMongoDBHandler;
+
+    private final Map<String, Batch> batches = new ConcurrentHashMap<>();
+    private final ThreadLocal<PendingWrites> tracking = new ThreadLocal<>();
+
+    /**
+     * Adds a write of the ingestion workload to the batch of its collection. See
+     * {@link #add(MongoWorkload, String, String, WriteModel)}.
+     *
+     * @param dataBaseName
+     * @param collectionName
+     * @param write          the insert, update or delete to send
+     * @return completed when MongoDB has acknowledged the write, or exceptionally if it failed
+     */
+    public CompletableFuture<Void> add(String dataBaseName, String collectionName,
+            WriteModel<Document> write) {
+        return add(MongoWorkload.INGESTION, dataBaseName, collectionName, write);
+    }
+
+    /**
+     * Adds a write to the batch of its collection. The write is sent with the
+     * next flush, or at once if the batch is full.
+     *
+     * @param workload       RELAXED_WRITE to send the write with the relaxed write concern
+     * @param dataBaseName
+     * @param collectionName
+     * @param write          the insert, update or delete to send
+     * @return completed when MongoDB has acknowledged the write, or exceptionally if it failed
+     */
+    public CompletableFuture<Void> add(MongoWorkload workload, String dataBaseName, String collectionName,
+            WriteModel<Document> write) {
+        return add(workload, dataBaseName, collectionName, write, tracking.get());
+    }
+
+    /**
+     * Adds a write to the batch of its collection without tracking it, for
+     * writes that should not send the event back to the queue if they fail.
+     *
+     * @param workload       RELAXED_WRITE to send the write with the relaxed write concern
+     * @param dataBaseName
+     * @param collectionName
+     * @param write          the insert, update or delete to send
+     * @return completed when MongoDB has acknowledged the write, or exceptionally if it failed
+     */
+    public CompletableFuture<Void> addUntracked(MongoWorkload workload, String dataBaseName,
+            String collectionName, WriteModel<Document> write) {
+        return add(workload, dataBaseName, collectionName, write, null);
+    }
+
+    private CompletableFuture<Void> add(MongoWorkload workload, String dataBaseName, String collectionName,
+            WriteModel<Document> write, PendingWrites tracked) {
+        MongoDBHandler handler = workload == MongoWorkload.RELAXED_WRITE && relaxedWriteMongoDBHandler != null
+                ? relaxedWriteMongoDBHandler
+                : mongoDBHandler;
+        PendingWrite pending = new PendingWrite(write);
+        if (tracked != null) {
+            tracked.add(pending.future);
+        }
+        if (batchSize <= 1) {
+            if (asyncMongoDBHandler != null && asyncMongoDBHandler.isEnabled()) {
+                // The caller goes on while the write is sent, the tracked future
+                // still holds back the acknowledgement of the event
+                asyncMongoDBHandler.submit(() -> {
+                    send(handler, dataBaseName, collectionName, List.of(pending));
+                    return null;
+                });
+            } else {
+                send(handler, dataBaseName, collectionName, List.of(pending));
+            }
+            return pending.future;
+        }
+        Batch batch = batches.computeIfAbsent(workload + ":" + dataBaseName + "." + collectionName,
+                name -> new Batch(handler, dataBaseName, collectionName));
+        List<PendingWrite> full = null;
+        batch.lock.lock();
+        try {
+            batch.writes.add(pending);
+            if (batch.writes.size() >= batchSize) {
+                full = batch.drain();
+            }
+        } finally {
+            batch.lock.unlock();
+        }
+        if (full != null) {
+            send(handler, dataBaseName, collectionName, full);
+        }
+        return pending.future;
+    }
+
+    /**
+     * Sends all writes that are waiting.
+     */
+    @Scheduled(initialDelayString = "${mongodb.bulk.write.flush.interval:20}", fixedDelayString = "${mongodb.bulk.write.flush.interval:20}")
+    public void flushAll() {
+        for (Batch batch : batches.values()) {
+            List<PendingWrite> writes;
+            batch.lock.lock();
+            try {
+                writes = batch.drain();
+            } finally {
+                batch.lock.unlock();
+            }
+            if (!writes.isEmpty()) {
+                send(batch.handler, batch.dataBaseName, batch.collectionName, writes);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        flushAll();
+    }
+
+    /**
+     * Starts tracking the writes added by the current thread, until
+     * {@link #stopTracking()} is called.
+     *
+     * @return the writes added while tracking
+     */
+    public PendingWrites startTracking() {
+        PendingWrites writes = new PendingWrites();
+        tracking.set(writes);
+        return writes;
+    }
+
+    /**
+     * Stops tracking the writes added by the current thread.
+     */
+    public void stopTracking() {
+        tracking.remove();
+    }
+
+    /**
+     * Returns a task that adds its writes to the writes tracked by the current
+     * thread, for work that an event hands over to other threads.
+     *
+     * @param task the task
+     * @return the tracked task
+     */
+    public Runnable withTracking(Runnable task) {
+        PendingWrites writes = tracking.get();
+        if (writes == null) {
+            return task;
+        }
+        return () -> {
+            tracking.set(writes);
+            try {
+                task.run();
+            } finally {
+                tracking.remove();
+            }
+        };
+    }
+
+    private void send(MongoDBHandler handler, String dataBaseName, String collectionName,
+            List<PendingWrite> writes) {
+        List<WriteModel<Document>> models = new ArrayList<>(writes.size());
+        for (PendingWrite pending : writes) {
+            models.add(pending.write);
+        }
+        try {
+            handler.bulkWrite(dataBaseName, collectionName, models);
+            writes.forEach(pending -> pending.future.complete(null));
+        } catch (MongoBulkWriteException e) {
+            // Unordered, so every write but the failed ones has been applied
+            Set<Integer> failed = new HashSet<>();
+            for (BulkWriteError error : e.getWriteErrors()) {
+                failed.add(error.getIndex());
+            }
+            LOGGER.error("{} of {} writes to {} failed.", failed.size(), writes.size(), collectionName, e);
+            for (int i = 0; i < writes.size(); i++) {
+                if (failed.contains(i) || e.getWriteConcernError() != null) {
+                    writes.get(i).future.completeExceptionally(e);
+                } else {
+                    writes.get(i).future.complete(null);
+                }
+            }
+        } catch (Exception e) {
+            LOGGER.error("Failed to write {} documents to {}.", writes.size(), collectionName, e);
+            writes.forEach(pending -> pending.future.completeExceptionally(e));
+        }
+    }
+
+    /**
+     * The writes added while an event was processed.
+     */
+    public static final class PendingWrites {
+        private final Queue<CompletableFuture<Void>> futures = new ConcurrentLinkedQueue<>();
+
+        private void add(CompletableFuture<Void> future) {
+            futures.add(future);
+        }
+
+        /**
+         * Returns a future that is completed when all the writes have been
+         * acknowledged, or exceptionally if one of them failed.
+         *
+         * @return the future
+         */
+        public CompletableFuture<Void> whenAcknowledged() {
+            return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+        }
+    }
+
+    private static final class PendingWrite {
+        private final WriteModel<Document> write;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private PendingWrite(WriteModel<Document> write) {
+            this.write = write;
+        }
+    }
+
+    /**
+     * The writes waiting to be sent to one collection.
+     */
+    private static final class Batch {
+        private final MongoDBHandler handler;
+        private final String dataBaseName;
+        private final String collectionName;
+        private final ReentrantLock lock = new ReentrantLock();
+        private List<PendingWrite> writes = new ArrayList<>();
+
+        private Batch(MongoDBHandler handler, String dataBaseName, String collectionName) {
+            this.handler = handler;
+            this.dataBaseName = dataBaseName;
+            this.collectionName = collectionName;
+        }
+
+        private List<PendingWrite> drain() {
+            List<PendingWrite> drained = writes;
+            writes = new ArrayList<>();
+            return drained;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/*
+   Copyright 2026 Ericsson AB.
+   For a full list of individual contributors, please see the commit history.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.ericsson.ei.mongo;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.ericsson.ei.exception.MongoDBConnectionException;
+import com.ericsson.ei.rules.RulesHandler;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Creates the indexes needed by the queries Eiffel Intelligence makes on its
+ * own collections when it starts, in addition to the TTL indexes created by
+ * each handler.
+ *
+ * <p>
+ * The aggregated objects are also looked up with the MatchIdRules of the
+ * rules, which may query any field. The fields used by the loaded rules are
+ * reported as candidate indexes by {@link #getIndexReport()}, but are not
+ * created, since which of them are worth their cost depends on the events
+ * received.
+ * </p>
+ */
+@Component
+public class IndexReconciler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IndexReconciler.class);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Getter
+    @Setter
+    @Value("${mongodb.indexes.enabled:true}")
+    private boolean enabled;
+
+    @Setter
+    @Value("${spring.data.mongodb.database}")
+    private String databaseName;
+
+    @Setter
+    @Value("${aggregations.collection.name}")
+    private String aggregationsCollectionName;
+
+    @Setter
+    @Value("${event.object.map.collection.name}")
+    private String eventObjectMapCollectionName;
+
+    @Setter
+    @Value("${subscriptions.collection.name}")
+    private String subscriptionsCollectionName;
+
+    @Setter
+    @Value("${subscriptions.repeat.handler.collection.name}")
+    private String subscriptionsRepeatHandlerCollectionName;
+
+    @Setter
+    @Value("${failed.notifications.collection.name}")
+    private String failedNotificationsCollectionName;
+
+    @Setter
+    @Autowired
+    private MongoDBHandler mongoDBHandler;
+
+    @Setter
+    @Autowired
+    private RulesHandler rulesHandler;
+
+    @PostConstruct
+    public void init() {
+        if (enabled) {
+            reconcile();
+        }
+    }
+
+    /**
+     * Creates the required indexes that do not exist.
+     */
+    public void reconcile() {
+        for (Map.Entry<String, String> index : getRequiredIndexes().entrySet()) {
+            try {
+                mongoDBHandler.createIndex(databaseName, index.getKey(), index.getValue());
+            } catch (MongoDBConnectionException e) {
+                LOGGER.error("Failed to create an index for {} in {} due to: {}", index.getValue(),
+                        index.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Returns the field indexed in each collection by {@link #reconcile()}.
+     *
+     * @return the indexed field by collection name
+     */
+    public Map<String, String> getRequiredIndexes() {
+        Map<String, String> indexes = new LinkedHashMap<>();
+        indexes.put(eventObjectMapCollectionName, "objects");
+        indexes.put(subscriptionsCollectionName, "subscriptionName");
+        indexes.put(subscriptionsRepeatHandlerCollectionName, "subscriptionId");
+        indexes.put(failedNotificationsCollectionName, "subscriptionName");
+        return indexes;
+    }
+
+    /**
+     * Returns the fields of the aggregated objects that the MatchIdRules of the
+     * loaded rules query, with the names of the templates querying them. The
+     * _id field is always indexed and is left out.
+     *
+     * @return the template names by field
+     */
+    public Map<String, Set<String>> getCandidateIndexes() {
+        Map<String, Set<String>> candidates = new TreeMap<>();
+        JsonNode rules = rulesHandler.getRulesContent();
+        if (rules == null) {
+            return candidates;
+        }
+        for (JsonNode rule : rules) {
+            JsonNode matchIdRules = rule.path("MatchIdRules");
+            if (matchIdRules.isTextual()) {
+                try {
+                    matchIdRules = OBJECT_MAPPER.readTree(matchIdRules.textValue());
+                } catch (Exception e) {
+                    LOGGER.debug("MatchIdRules of {} is not a query.", rule.path("TemplateName").asText(), e);
+                    continue;
+                }
+            }
+            Set<String> fields = new TreeSet<>();
+            collectQueriedFields(matchIdRules, fields);
+            for (String field : fields) {
+                candidates.computeIfAbsent(field, f -> new TreeSet<>())
+                          .add(rule.path("TemplateName").asText());
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Returns the required and the candidate indexes, and if they exist.
+     *
+     * @return the report
+     * @throws MongoDBConnectionException if the existing indexes could not be listed
+     */
+    public JsonNode getIndexReport() throws MongoDBConnectionException {
+        ObjectNode report = OBJECT_MAPPER.createObjectNode();
+        ArrayNode required = report.putArray("required");
+        for (Map.Entry<String, String> index : getRequiredIndexes().entrySet()) {
+            Set<String> indexedFields = mongoDBHandler.getIndexedFields(databaseName, index.getKey());
+            required.addObject()
+                    .put("collection", index.getKey())
+                    .put("field", index.getValue())
+                    .put("exists", indexedFields.contains(index.getValue()));
+        }
+        ArrayNode candidates = report.putArray("candidates");
+        Set<String> indexedFields = mongoDBHandler.getIndexedFields(databaseName, aggregationsCollectionName);
+        for (Map.Entry<String, Set<String>> candidate : getCandidateIndexes().entrySet()) {
+            ObjectNode node = candidates.addObject()
+                                        .put("collection", aggregationsCollectionName)
+                                        .put("field", candidate.getKey())
+                                        .put("exists", indexedFields.contains(candidate.getKey()));
+            ArrayNode templateNames = node.putArray("templateNames");
+            candidate.getValue().forEach(templateNames::add);
+        }
+        return report;
+    }
+
+    /**
+     * Adds the fields a query matches on. Operators like $and and $or are
+     * followed into their sub queries, while operators on a field, like
+     * $exists, only count as a match on that field.
+     */
+    private static void collectQueriedFields(JsonNode query, Set<String> fields) {
+        if (query.isArray()) {
+            query.forEach(subQuery -> collectQueriedFields(subQuery, fields));
+            return;
+        }
+        Iterator<Map.Entry<String, JsonNode>> entries = query.fields();
+        while (entries.hasNext()) {
+            Map.Entry<String, JsonNode> entry = entries.next();
+            String name = entry.getKey();
+            if (name.startsWith("$")) {
+                collectQueriedFields(entry.getValue(), fields);
+            } else if (!MongoConstants.ID.equals(name)) {
+                fields.add(name);
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+   Copyright 2026 Ericsson AB.
+   For a full list of individual contributors, please see the commit history.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.ericsson.ei.mongo;
+
+import org.bson.Document;
+
+/**
+ * A MongoQuery that is already built as a BSON document, so the database
+ * handler can use it without parsing the query string.
+ */
+public class MongoBsonQuery implements MongoQuery {
+
+    private final Document filter;
+    private final boolean idLookup;
+    private final Document projection;
+    private final int limit;
+
+    /**
+     * Creates a MongoBsonQuery with the given document as filter
+     *
+     * @param filter   the filter
+     * @param idLookup true if the filter only matches _id against a value
+     */
+    public MongoBsonQuery(Document filter, boolean idLookup) {
+        this(filter, idLookup, null, 0);
+    }
+
+    private MongoBsonQuery(Document filter, boolean idLookup, Document projection, int limit) {
+        this.filter = filter;
+        this.idLookup = idLookup;
+        this.projection = projection;
+        this.limit = limit;
+    }
+
+    /**
+     * Creates a MongoBsonQuery with the filter of the given query.
+     *
+     * @param query the query to copy the filter from
+     * @return a MongoBsonQuery with the same filter
+     */
+    public static MongoBsonQuery of(MongoQuery query) {
+        if (query instanceof MongoBsonQuery) {
+            return (MongoBsonQuery) query;
+        }
+        return new MongoBsonQuery(query.getQueryDocument(), false);
+    }
+
+    /**
+     * Creates a MongoBsonQuery to find a document with a given id.
+     *
+     * @param documentId The id value
+     * @return A MongoBsonQuery matching the id
+     */
+    public static MongoBsonQuery idQuery(String documentId) {
+        return new MongoBsonQuery(new Document(MongoConstants.ID, documentId), true);
+    }
+
+    /**
+     * Returns the filter. It must not be modified.
+     *
+     * @return the filter document
+     */
+    public Document getFilter() {
+        return filter;
+    }
+
+    /**
+     * Returns true if the filter is an equality match on _id, which matches at
+     * most one document.
+     *
+     * @return true for an _id lookup
+     */
+    public boolean isIdLookup() {
+        return idLookup;
+    }
+
+    /**
+     * Returns a copy of this query that only fetches the given fields. The _id
+     * field is always fetched.
+     *
+     * @param fields the names of the fields to fetch
+     * @return the new query
+     */
+    public MongoBsonQuery withProjection(String... fields) {
+        Document fieldsToFetch = new Document();
+        for (String field : fields) {
+            fieldsToFetch.append(field, 1);
+        }
+        return new MongoBsonQuery(filter, idLookup, fieldsToFetch, limit);
+    }
+
+    /**
+     * Returns a copy of this query that fetches at most the given number of
+     * documents.
+     *
+     * @param maxDocuments the limit, 0 for no limit
+     * @return the new query
+     */
+    public MongoBsonQuery withLimit(int maxDocuments) {
+        return new MongoBsonQuery(filter, idLookup, projection, maxDocuments);
+    }
+
+    @Override
+    public Document getProjection() {
+        return projection;
+    }
+
+    /**
+     * Returns the limit of the query. An _id lookup is limited to one
+     * document, since _id is unique.
+     */
+    @Override
+    public int getLimit() {
+        if (limit == 0 && idLookup) {
+            return 1;
+        }
+        return limit;
+    }
+
+    /**
+     * See {@link #getFilter()}
+     */
+    @Override
+    public Document getQueryDocument() {
+        return filter;
+    }
+
+    /**
+     * Returns the filter as JSON
+     *
+     * @return the filter as JSON
+     */
+    @Override
+    public String getQueryString() {
+        return filter.toJson();
+    }
+
+    /**
+     * See {@link #getQueryString()}
+     */
+    @Override
+    public String toString() {
+        return getQueryString();
+    }
+}
@@ -0,0 +1,41 @@
+/*
+   Copyright 2026 Ericsson AB.
+   For a full list of individual contributors, please see the commit history.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.ericsson.ei.mongo;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Declares the MongoDBHandlers of the workloads other than ingestion, which
+ * uses the primary MongoDBHandler component.
+ */
+@Configuration
+public class MongoClientConfig {
+
+    public static final String QUERY_HANDLER = "queryMongoDBHandler";
+    public static final String RELAXED_WRITE_HANDLER = "relaxedWriteMongoDBHandler";
+
+    @Bean(QUERY_HANDLER)
+    public MongoDBHandler queryMongoDBHandler() {
+        return new MongoDBHandler(MongoWorkload.QUERY);
+    }
+
+    @Bean(RELAXED_WRITE_HANDLER)
+    public MongoDBHandler relaxedWriteMongoDBHandler() {
+        return new MongoDBHandler(MongoWorkload.RELAXED_WRITE);
+    }
+}
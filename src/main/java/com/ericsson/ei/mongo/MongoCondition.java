@@ -13,6 +13,7 @@
 */
 package com.ericsson.ei.mongo;
 
+import org.bson.Document;
 import org.json.JSONObject;
 
 import com.fasterxml.jackson.databind.JsonNode;
@@ -144,6 +145,22 @@ public class MongoCondition implements MongoQuery {
         return condition.toString();
     }
 
+    /**
+     * Returns this MongoCondition as a document, built from the values of the
+     * condition without writing it as JSON
+     *
+     * @return Condition as a document
+     */
+    @Override
+    public Document getQueryDocument() {
+        Document document = new Document();
+        for (String key : condition.keySet()) {
+            Object value = condition.get(key);
+            document.put(key, JSONObject.NULL.equals(value) ? null : value);
+        }
+        return document;
+    }
+
     /**
      * See {@link #getQueryString()}
      */
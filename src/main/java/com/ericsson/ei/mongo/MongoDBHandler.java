@@ -14,44 +14,63 @@
 package com.ericsson.ei.mongo;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 
 import org.apache.commons.lang3.StringUtils;
 import org.bson.Document;
+import org.bson.conversions.Bson;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.mongo.MongoProperties;
+import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Component;
 
 import com.ericsson.ei.exception.AbortExecutionException;
 import com.ericsson.ei.exception.MongoDBConnectionException;
 import com.ericsson.ei.handlers.DateUtils;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.mongodb.BasicDBObject;
+import com.mongodb.ConnectionString;
 import com.mongodb.ErrorCategory;
 import com.mongodb.MongoClientException;
+import com.mongodb.MongoClientSettings;
 import com.mongodb.MongoCommandException;
 import com.mongodb.MongoConfigurationException;
 import com.mongodb.MongoInterruptedException;
 import com.mongodb.MongoSocketReadException;
 import com.mongodb.MongoSocketWriteException;
 import com.mongodb.MongoWriteException;
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
+import com.mongodb.bulk.BulkWriteResult;
 import com.mongodb.client.FindIterable;
 import com.mongodb.client.ListDatabasesIterable;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.CountOptions;
 import com.mongodb.client.model.IndexOptions;
 import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.UpdateOptions;
 import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
 import com.mongodb.client.result.DeleteResult;
 import com.mongodb.client.result.UpdateResult;
 import com.mongodb.client.MongoCursor;
@@ -59,10 +78,19 @@ import com.mongodb.client.MongoCursor;
 import lombok.Getter;
 import lombok.Setter;
 
+/**
+ * Reads and writes documents in MongoDB. The component is the handler of the
+ * {@link MongoWorkload#INGESTION} workload, the handlers of the other
+ * workloads are declared by {@link MongoClientConfig}.
+ */
+@Primary
 @Component
 public class MongoDBHandler {
     private static final Logger LOGGER = LoggerFactory.getLogger(MongoDBHandler.class);
 
+    @Getter
+    private final MongoWorkload workload;
+
     @Getter
     @Autowired
     private MongoProperties mongoProperties;
@@ -75,6 +103,51 @@ public class MongoDBHandler {
     @Value("${spring.data.mongodb.database}")
     private String databaseName;
 
+    @Getter
+    @Setter
+    @Value("${mongodb.cursor.batch.size:100}")
+    private int cursorBatchSize;
+
+    @Setter
+    @Value("${mongodb.pool.max.size:0}")
+    private int poolMaxSize;
+
+    @Setter
+    @Value("${mongodb.query.pool.max.size:0}")
+    private int queryPoolMaxSize;
+
+    @Setter
+    @Value("${mongodb.relaxed.write.pool.max.size:0}")
+    private int relaxedWritePoolMaxSize;
+
+    @Setter
+    @Value("${mongodb.pool.max.wait.time:0}")
+    private int poolMaxWaitTime;
+
+    @Setter
+    @Value("${mongodb.connect.timeout:0}")
+    private int connectTimeout;
+
+    @Setter
+    @Value("${mongodb.server.selection.timeout:0}")
+    private int serverSelectionTimeout;
+
+    @Setter
+    @Value("${mongodb.query.read.preference:primary}")
+    private String queryReadPreference;
+
+    @Setter
+    @Value("${mongodb.relaxed.write.concern:}")
+    private String relaxedWriteConcern;
+
+    public MongoDBHandler() {
+        this(MongoWorkload.INGESTION);
+    }
+
+    public MongoDBHandler(MongoWorkload workload) {
+        this.workload = workload;
+    }
+
     // TODO establish connection automatically when Spring instantiate this
     // based on connection data in properties file
     @PostConstruct
@@ -117,6 +190,31 @@ public class MongoDBHandler {
         }
     }
     
+    /**
+     * This method is used to insert a document that is already built, without
+     * parsing it from a JSON String
+     *
+     * @param dataBaseName
+     * @param collectionName
+     * @param document - Document object to insert
+     */
+    public void insertDocumentObject(String dataBaseName, String collectionName, Document document) {
+        try {
+            MongoCollection<Document> collection = getMongoCollection(dataBaseName, collectionName);
+            if (collection != null) {
+                long start = System.currentTimeMillis();
+                collection.insertOne(document);
+                long stop = System.currentTimeMillis();
+                LOGGER.debug("#### Response time to insert the document in ms: {} ", stop-start);
+                LOGGER.debug("Object: {}\n was inserted successfully in collection: {} and database {}.", document,
+                        collectionName, dataBaseName);
+            }
+        } catch (Exception e) {
+            LOGGER.error("Failed to insert Object: {} \n in collection: {} and database {}. \n {}", document,
+                    collectionName, dataBaseName, e.getMessage());
+        }
+    }
+
     /**
      * This method is used to insert the Document object into collection
      * 
@@ -162,13 +260,36 @@ public class MongoDBHandler {
      */
     public ArrayList<String> getAllDocuments(String dataBaseName, String collectionName) {
         ArrayList<String> result = new ArrayList<>();
+        for (Document document : getAllDocumentObjects(dataBaseName, collectionName)) {
+            result.add(new BasicDBObject(document).toString());
+        }
+        return result;
+    }
+
+    /**
+     * This method is used for the retrieve the all documents from the collection as JSON trees
+     *
+     * @param dataBaseName
+     * @param collectionName
+     * @return
+     */
+    public List<JsonNode> getAllJsonNodes(String dataBaseName, String collectionName) {
+        return toJsonNodes(getAllDocumentObjects(dataBaseName, collectionName));
+    }
+
+    /**
+     * This method is used for the retrieve the all documents from the collection
+     *
+     * @param dataBaseName
+     * @param collectionName
+     * @return
+     */
+    public List<Document> getAllDocumentObjects(String dataBaseName, String collectionName) {
+        List<Document> result = new ArrayList<>();
         try {
             MongoCollection<Document> collection = getMongoCollection(dataBaseName, collectionName);
             if (collection != null) {
-                FindIterable<Document> foundResults = collection.find();
-                for (Document document : foundResults) {
-                    result.add(new BasicDBObject(document).toString());
-                }
+                collection.find().into(result);
 
                 if (result.size() != 0) {
                     // This will pass about 10 times/second and most of the times DB will be empty,
@@ -194,7 +315,39 @@ public class MongoDBHandler {
      */
     public ArrayList<String> find(String dataBaseName, String collectionName,
             MongoQuery query) throws MongoClientException {
-        ArrayList<String> result = new ArrayList<>(0);
+        List<Document> documents = findDocumentObjects(dataBaseName, collectionName, query);
+        ArrayList<String> result = new ArrayList<>(documents.size());
+        for (Document document : documents) {
+            // Currently document.toJson() does not work here since something will add \\\ before
+            // all " later on, All get sometihng in mongoDB shoult redurn a JSON object and not a
+            // String.
+            result.add(new BasicDBObject(document).toString());
+        }
+        return result;
+    }
+
+    /**
+     * This method is used for the retrieve the documents based on the condition as JSON trees
+     *
+     * @param dataBaseName
+     * @param collectionName
+     * @param query
+     * @return
+     */
+    public List<JsonNode> findJsonNodes(String dataBaseName, String collectionName, MongoQuery query) {
+        return toJsonNodes(findDocumentObjects(dataBaseName, collectionName, query));
+    }
+
+    /**
+     * This method is used for the retrieve the documents based on the condition
+     *
+     * @param dataBaseName
+     * @param collectionName
+     * @param query
+     * @return
+     */
+    public List<Document> findDocumentObjects(String dataBaseName, String collectionName, MongoQuery query) {
+        List<Document> result = new ArrayList<>(0);
 
         try {
             result = doFind(dataBaseName, collectionName, query);
@@ -205,6 +358,67 @@ public class MongoDBHandler {
         return result;
     }
 
+    /**
+     * This method is used for streaming the documents based on the condition. The documents are
+     * fetched from the database in batches while the stream is consumed, so the whole result is
+     * never held in memory. The stream must be closed, preferably with try-with-resources, to
+     * close the cursor if it is not consumed to the end. Errors while consuming the stream are
+     * thrown to the caller.
+     *
+     * @param dataBaseName
+     * @param collectionName
+     * @param query          the condition, or null for all documents
+     * @param batchSize      number of documents fetched at a time, 0 for mongodb.cursor.batch.size
+     * @param limit          maximum number of documents, 0 for the limit of the query
+     * @return the documents
+     */
+    public Stream<Document> streamDocumentObjects(String dataBaseName, String collectionName,
+            MongoQuery query, int batchSize, int limit) {
+        try {
+            MongoCollection<Document> collection = getMongoCollection(dataBaseName, collectionName);
+            if (collection == null) {
+                return Stream.empty();
+            }
+            FindIterable<Document> foundResults = query == null ? collection.find()
+                    : collection.find(query.getQueryDocument());
+            int resolvedBatchSize = batchSize > 0 ? batchSize : cursorBatchSize;
+            if (resolvedBatchSize > 0) {
+                foundResults = foundResults.batchSize(resolvedBatchSize);
+            }
+            if (query != null && query.getProjection() != null) {
+                foundResults = foundResults.projection(query.getProjection());
+            }
+            int resolvedLimit = limit > 0 || query == null ? limit : query.getLimit();
+            if (resolvedLimit > 0) {
+                foundResults = foundResults.limit(resolvedLimit);
+            }
+            MongoCursor<Document> cursor = foundResults.iterator();
+            Spliterator<Document> spliterator = Spliterators.spliteratorUnknownSize(cursor,
+                    Spliterator.ORDERED | Spliterator.NONNULL);
+            return StreamSupport.stream(spliterator, false).onClose(cursor::close);
+        } catch (Exception e) {
+            LOGGER.error("Failed to retrieve documents from the collection {}.", collectionName, e);
+        }
+        return Stream.empty();
+    }
+
+    /**
+     * This method is used for streaming the documents based on the condition as JSON trees. See
+     * {@link #streamDocumentObjects(String, String, MongoQuery, int, int)}.
+     *
+     * @param dataBaseName
+     * @param collectionName
+     * @param query          the condition, or null for all documents
+     * @param batchSize      number of documents fetched at a time, 0 for mongodb.cursor.batch.size
+     * @param limit          maximum number of documents, 0 for the limit of the query
+     * @return the documents
+     */
+    public Stream<JsonNode> streamJsonNodes(String dataBaseName, String collectionName,
+            MongoQuery query, int batchSize, int limit) {
+        return streamDocumentObjects(dataBaseName, collectionName, query, batchSize, limit)
+                .map(BsonConverter::toJsonNode);
+    }
+
     /**
      * This method is used for update the document in collection and remove the lock in one query.
      * Lock is needed for multi process execution
@@ -219,7 +433,28 @@ public class MongoDBHandler {
             MongoQuery queryFilter,
             String updateInput) throws MongoClientException {
         try {
-            return doUpdate(dataBaseName, collectionName, queryFilter, updateInput);
+            return doUpdate(dataBaseName, collectionName, queryFilter, Document.parse(updateInput));
+        } catch (Exception e) {
+            LOGGER.error("Failed to update document.", e);
+        }
+
+        return false;
+    }
+
+    /**
+     * This method is used for update the document in collection and remove the lock in one query,
+     * with the updated document already built.
+     *
+     * @param dataBaseName
+     * @param collectionName
+     * @param queryFilter    is a condition for the document to update
+     * @param document       is updated document without lock
+     * @return
+     */
+    public boolean updateDocumentObject(String dataBaseName, String collectionName,
+            MongoQuery queryFilter, Document document) {
+        try {
+            return doUpdate(dataBaseName, collectionName, queryFilter, document);
         } catch (Exception e) {
             LOGGER.error("Failed to update document.", e);
         }
@@ -241,7 +476,27 @@ public class MongoDBHandler {
             MongoQuery queryFilter,
             String updateInput) {
         try {
-            return doFindAndModify(dataBaseName, collectionName, queryFilter, updateInput);
+            return doFindAndModify(dataBaseName, collectionName, queryFilter, Document.parse(updateInput));
+        } catch (Exception e) {
+            LOGGER.error("Failed to update document.", e);
+        }
+        return null;
+    }
+
+    /**
+     * This method is used for lock and return the document that matches the input condition in one
+     * query, with the update already built.
+     *
+     * @param dataBaseName
+     * @param collectionName
+     * @param queryFilter    is a condition for update documents
+     * @param update         is the update to apply
+     * @return
+     */
+    public Document findAndModifyDocumentObject(String dataBaseName, String collectionName,
+            MongoQuery queryFilter, Document update) {
+        try {
+            return doFindAndModify(dataBaseName, collectionName, queryFilter, update);
         } catch (Exception e) {
             LOGGER.error("Failed to update document.", e);
         }
@@ -287,6 +542,52 @@ public class MongoDBHandler {
             throw new MongoDBConnectionException(e.getMessage());
         }
     }
+
+    /**
+     * This method is used to create an ascending index for a field. Nothing is changed if the
+     * index already exists.
+     *
+     * @param dataBaseName
+     * @param collectionName
+     * @param fieldName      the field to index
+     * @throws MongoDBConnectionException
+     */
+    public void createIndex(String dataBaseName, String collectionName, String fieldName)
+            throws MongoDBConnectionException {
+        try {
+            MongoCollection<Document> collection = getMongoCollection(dataBaseName, collectionName);
+            LOGGER.debug("Creating the index for {} in collection: {}", fieldName, collection.getNamespace());
+            collection.createIndex(Indexes.ascending(fieldName));
+        } catch (Exception e) {
+            throw new MongoDBConnectionException(e.getMessage());
+        }
+    }
+
+    /**
+     * This method is used to get the first field of each index in a collection, which are the
+     * fields that queries can use an index for.
+     *
+     * @param dataBaseName
+     * @param collectionName
+     * @return the indexed fields
+     * @throws MongoDBConnectionException
+     */
+    public Set<String> getIndexedFields(String dataBaseName, String collectionName)
+            throws MongoDBConnectionException {
+        Set<String> fields = new HashSet<>();
+        try {
+            MongoCollection<Document> collection = getMongoCollection(dataBaseName, collectionName);
+            for (Document index : collection.listIndexes()) {
+                Document key = index.get("key", Document.class);
+                if (key != null && !key.isEmpty()) {
+                    fields.add(key.keySet().iterator().next());
+                }
+            }
+        } catch (Exception e) {
+            throw new MongoDBConnectionException(e.getMessage());
+        }
+        return fields;
+    }
     /**
      * This method is used to check and drop the TTL index for specific field.
      * 
@@ -343,21 +644,81 @@ public class MongoDBHandler {
         }
     }
 
+    private List<JsonNode> toJsonNodes(List<Document> documents) {
+        List<JsonNode> result = new ArrayList<>(documents.size());
+        for (Document document : documents) {
+            result.add(BsonConverter.toJsonNode(document));
+        }
+        return result;
+    }
+
     private void createMongoClient() throws AbortExecutionException {
         if (StringUtils.isBlank(mongoProperties.getUri())) {
             throw new MongoConfigurationException(
                     "Failure to create MongoClient, missing config for spring.data.mongodb.uri:");
         }
-        mongoClient = MongoClients.create(mongoProperties.getUri());
+        mongoClient = MongoClients.create(createClientSettings(mongoProperties.getUri()));
+    }
+
+    /**
+     * Creates the settings of the client of the workload. The settings in the connection string
+     * are used, except for those given by mongodb.* properties that are set, and ingestion always
+     * reads from the primary. Sizes and times of 0 and empty values leave the setting of the
+     * connection string as it is.
+     *
+     * @param uri the connection string
+     * @return the client settings
+     */
+    public MongoClientSettings createClientSettings(String uri) {
+        MongoClientSettings.Builder builder = MongoClientSettings.builder()
+                                                                 .applyConnectionString(new ConnectionString(uri));
+        int maxSize = getPoolMaxSize();
+        builder.applyToConnectionPoolSettings(pool -> {
+            if (maxSize > 0) {
+                pool.maxSize(maxSize);
+            }
+            if (poolMaxWaitTime > 0) {
+                pool.maxWaitTime(poolMaxWaitTime, TimeUnit.MILLISECONDS);
+            }
+        });
+        if (connectTimeout > 0) {
+            builder.applyToSocketSettings(socket -> socket.connectTimeout(connectTimeout, TimeUnit.MILLISECONDS));
+        }
+        if (serverSelectionTimeout > 0) {
+            builder.applyToClusterSettings(
+                    cluster -> cluster.serverSelectionTimeout(serverSelectionTimeout, TimeUnit.MILLISECONDS));
+        }
+        if (workload == MongoWorkload.INGESTION) {
+            // Locks and the reads following them must see the latest writes
+            builder.readPreference(ReadPreference.primary());
+        } else if (workload == MongoWorkload.QUERY && StringUtils.isNotBlank(queryReadPreference)) {
+            builder.readPreference(ReadPreference.valueOf(queryReadPreference.trim()));
+        } else if (workload == MongoWorkload.RELAXED_WRITE && StringUtils.isNotBlank(relaxedWriteConcern)) {
+            builder.writeConcern(WriteConcern.valueOf(relaxedWriteConcern.trim()));
+        }
+        LOGGER.debug("MongoClient for {} workload with {} connections at most.", workload,
+                maxSize > 0 ? maxSize : "the default number of");
+        return builder.build();
+    }
+
+    private int getPoolMaxSize() {
+        switch (workload) {
+        case QUERY:
+            return queryPoolMaxSize;
+        case RELAXED_WRITE:
+            return relaxedWritePoolMaxSize;
+        default:
+            return poolMaxSize;
+        }
     }
 
-    private ArrayList<String> doFind(String dataBaseName, String collectionName,
+    private List<Document> doFind(String dataBaseName, String collectionName,
             MongoQuery query) throws MongoClientException {
         LOGGER.debug(
                 "Find and retrieve data from database.\nDatabase: {}\nCollection: {}\nCondition/Query: {}",
-                dataBaseName, collectionName, query.getQueryString());
+                dataBaseName, collectionName, query);
 
-        ArrayList<String> result = new ArrayList<>();
+        List<Document> result = new ArrayList<>();
 
         MongoCollection<Document> collection = getMongoCollection(dataBaseName, collectionName);
         if (collection == null) {
@@ -365,14 +726,14 @@ public class MongoDBHandler {
             return result;
         }
 
-        BasicDBObject conditionsAsDbObject = BasicDBObject.parse(query.getQueryString());
-        FindIterable<Document> foundResults = collection.find(conditionsAsDbObject);
-        for (Document document : foundResults) {
-            // Currently document.toJson() does not work here since something will add \\\ before
-            // all " later on, All get sometihng in mongoDB shoult redurn a JSON object and not a
-            // String.
-            result.add(new BasicDBObject(document).toString());
+        FindIterable<Document> foundResults = collection.find(query.getQueryDocument());
+        if (query.getProjection() != null) {
+            foundResults = foundResults.projection(query.getProjection());
+        }
+        if (query.getLimit() > 0) {
+            foundResults = foundResults.limit(query.getLimit());
         }
+        foundResults.into(result);
 
         if (result.size() != 0) {
             LOGGER.debug("find() :: database: {} and collection: {} fetched No of : {}",
@@ -388,15 +749,13 @@ public class MongoDBHandler {
 
     private Document doFindAndModify(String dataBaseName, String collectionName,
             MongoQuery queryFilter,
-            String updateInput) throws MongoClientException {
+            Document update) throws MongoClientException {
         long start = System.currentTimeMillis();
         MongoCollection<Document> collection = getMongoCollection(dataBaseName, collectionName);
         if (collection == null) {
             return null;
         }
-        final Document dbObjectInput = Document.parse(queryFilter.getQueryString());
-        final Document dbObjectUpdateInput = Document.parse(updateInput);
-        Document result = collection.findOneAndUpdate(dbObjectInput, dbObjectUpdateInput);
+        Document result = collection.findOneAndUpdate(queryFilter.getQueryDocument(), update);
         if (result != null) {
             long stop = System.currentTimeMillis();
             LOGGER.debug("#### Response time to findAndModify the document in ms: {} ", stop-start);
@@ -408,16 +767,14 @@ public class MongoDBHandler {
     }
 
     private boolean doUpdate(String dataBaseName, String collectionName, MongoQuery queryFilter,
-            String updateInput) throws MongoClientException {
+            Document document) throws MongoClientException {
         long start = System.currentTimeMillis();
         MongoCollection<Document> collection = getMongoCollection(dataBaseName, collectionName);
         if (collection == null) {
             return false;
         }
 
-        final Document dbObjectInput = Document.parse(queryFilter.getQueryString());
-        final Document dbObjectUpdateInput = Document.parse(updateInput);
-        UpdateResult updateOne = collection.replaceOne(dbObjectInput, dbObjectUpdateInput);
+        UpdateResult updateOne = collection.replaceOne(queryFilter.getQueryDocument(), document);
         long stop = System.currentTimeMillis();
         LOGGER.debug("#### Response time to update the document in ms: {} ", stop-start);
         boolean updateWasPerformed = updateOne.wasAcknowledged()
@@ -434,8 +791,7 @@ public class MongoDBHandler {
             return false;
         }
 
-        final Document dbObjectCondition = Document.parse(query.getQueryString());
-        DeleteResult deleteMany = collection.deleteMany(dbObjectCondition);
+        DeleteResult deleteMany = collection.deleteMany(query.getQueryDocument());
         if (deleteMany.getDeletedCount() > 0) {
             LOGGER.debug("database: {} and collection: {} deleted No.of records {}",
                     dataBaseName, collectionName, deleteMany.getDeletedCount());
@@ -522,27 +878,62 @@ public class MongoDBHandler {
      * @return
      */
     public boolean checkDocumentExists(String databaseName, String collectionName, MongoCondition condition) {
+        return exists(databaseName, collectionName, condition);
+    }
 
+    /**
+     * Check if any document matches the query. Only the _id of the first matching document is
+     * fetched, so the documents are never sent from the database.
+     *
+     * @param dataBaseName
+     * @param collectionName
+     * @param query          the condition
+     * @return true if a document matches, false if not or if the database could not be reached
+     */
+    public boolean exists(String dataBaseName, String collectionName, MongoQuery query) {
         try {
             long start = System.currentTimeMillis();
-            MongoDatabase db = mongoClient.getDatabase(databaseName);
-            MongoCollection<Document> mongoCollection = db.getCollection(collectionName);
-            Document doc = null;
-            if (mongoCollection != null) {
-                doc = mongoCollection.find(BasicDBObject.parse(condition.toString())).first();
-            }
-            if (doc == null || doc.isEmpty()) {
+            MongoCollection<Document> collection = getMongoCollection(dataBaseName, collectionName);
+            if (collection == null) {
                 return false;
             }
+            Document document = collection.find(query.getQueryDocument())
+                                          .projection(Projections.include(MongoConstants.ID))
+                                          .limit(1)
+                                          .first();
             long stop = System.currentTimeMillis();
-            LOGGER.debug("#### Response time to checkDocumentExists in ms: {} ", stop-start);
+            LOGGER.debug("#### Response time to check if document exists in ms: {} ", stop - start);
+            return document != null;
         } catch (Exception e) {
-            LOGGER.error("something wrong with MongoDB " + e);
-            return false;
+            LOGGER.error("Failed to check if document exists in {}.", collectionName, e);
         }
-        return true;
+        return false;
     }
 
+    /**
+     * Counts the documents matching the query, up to the limit of the query.
+     *
+     * @param dataBaseName
+     * @param collectionName
+     * @param query          the condition
+     * @return the number of matching documents, 0 if the database could not be reached
+     */
+    public long count(String dataBaseName, String collectionName, MongoQuery query) {
+        try {
+            MongoCollection<Document> collection = getMongoCollection(dataBaseName, collectionName);
+            if (collection == null) {
+                return 0;
+            }
+            CountOptions options = new CountOptions();
+            if (query.getLimit() > 0) {
+                options.limit(query.getLimit());
+            }
+            return collection.countDocuments(query.getQueryDocument(), options);
+        } catch (Exception e) {
+            LOGGER.error("Failed to count documents in {}.", collectionName, e);
+        }
+        return 0;
+    }
 
     /**
      * Update the existing documents with unique objects list
@@ -558,9 +949,10 @@ public class MongoDBHandler {
             long start = System.currentTimeMillis();
             MongoCollection<Document> collection = getMongoCollection(dataBaseName, collectionName);
             if (collection != null) {
-                final Document dbObjectInput = Document.parse(condition.toString());
-                UpdateResult updateMany = collection.updateOne(dbObjectInput, Updates.addToSet("objects", eventId));
-                updateMany = collection.updateOne(dbObjectInput, Updates.set(MongoConstants.TIME, DateUtils.getDate()));
+                final Document dbObjectInput = condition.getQueryDocument();
+                UpdateResult updateMany = collection.updateOne(dbObjectInput,
+                        Updates.combine(Updates.addToSet("objects", eventId),
+                                Updates.set(MongoConstants.TIME, DateUtils.getDate())));
                 long stop = System.currentTimeMillis();
                 LOGGER.debug("#### Response time to updateDocumentAddToSet in ms: {} ", stop-start);
                 LOGGER.debug("updateDocument() :: database: {} and collection: {} is document Updated : {}", dataBaseName, collectionName, updateMany.wasAcknowledged());
@@ -573,6 +965,60 @@ public class MongoDBHandler {
         return false;
     }
     
+    /**
+     * Applies an update to the first document matching the query, or inserts a
+     * document built from the query and the update if none matches and upsert is
+     * true. The update is sent at once, in a single request.
+     *
+     * @param dataBaseName
+     * @param collectionName
+     * @param query          the condition for the document to update
+     * @param update         the update operators to apply
+     * @param upsert         true to insert a document if none matches
+     * @return true if the update was acknowledged
+     */
+    public boolean updateOne(String dataBaseName, String collectionName, MongoQuery query, Bson update,
+            boolean upsert) {
+        try {
+            long start = System.currentTimeMillis();
+            MongoCollection<Document> collection = getMongoCollection(dataBaseName, collectionName);
+            if (collection != null) {
+                UpdateResult result = collection.updateOne(query.getQueryDocument(), update,
+                        new UpdateOptions().upsert(upsert));
+                long stop = System.currentTimeMillis();
+                LOGGER.debug("#### Response time to update one document in ms: {} ", stop - start);
+                return result.wasAcknowledged();
+            }
+        } catch (Exception e) {
+            LOGGER.error("Failed to update document.", e);
+        }
+
+        return false;
+    }
+
+    /**
+     * Sends the writes to the collection as one unordered bulk write. Errors are thrown to the
+     * caller, see {@link BulkWriteBuffer}.
+     *
+     * @param dataBaseName
+     * @param collectionName
+     * @param writes         the inserts, updates and deletes to send
+     * @return the result of the bulk write
+     * @throws MongoClientException if the collection could not be reached
+     */
+    public BulkWriteResult bulkWrite(String dataBaseName, String collectionName,
+            List<WriteModel<Document>> writes) throws MongoClientException {
+        long start = System.currentTimeMillis();
+        MongoCollection<Document> collection = getMongoCollection(dataBaseName, collectionName);
+        if (collection == null) {
+            throw new MongoClientException("Failed to get Mongo collection " + collectionName);
+        }
+        BulkWriteResult result = collection.bulkWrite(writes, new BulkWriteOptions().ordered(false));
+        long stop = System.currentTimeMillis();
+        LOGGER.debug("#### Response time to bulk write {} documents in ms: {} ", writes.size(), stop - start);
+        return result;
+    }
+
     public boolean checkMongoDbStatus(String dataBaseName) {
         MongoDatabase db;
         List<String> collectionList;
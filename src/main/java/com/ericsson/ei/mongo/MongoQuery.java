@@ -13,10 +13,41 @@
 */
 package com.ericsson.ei.mongo;
 
+import org.bson.Document;
+
 public interface MongoQuery {
 
     public String getQueryString();
 
+    /**
+     * Returns the query as a BSON document, which is given to the database
+     * instead of the query string.
+     *
+     * @return the query as a document
+     */
+    public default Document getQueryDocument() {
+        return Document.parse(getQueryString());
+    }
+
+    /**
+     * Returns the fields to fetch for each matching document, or null to fetch
+     * the whole documents.
+     *
+     * @return the projection, or null
+     */
+    public default Document getProjection() {
+        return null;
+    }
+
+    /**
+     * Returns the maximum number of documents to fetch, or 0 for no limit.
+     *
+     * @return the limit
+     */
+    public default int getLimit() {
+        return 0;
+    }
+
     @Override
     public String toString();
 }
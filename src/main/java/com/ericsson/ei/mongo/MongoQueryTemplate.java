@@ -0,0 +1,250 @@
+/*
+   Copyright 2026 Ericsson AB.
+   For a full list of individual contributors, please see the commit history.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.ericsson.ei.mongo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A query given as JSON text containing a placeholder marker, parsed once into
+ * a BSON document. The marker may only appear in string values. Binding a
+ * value builds a new filter where the marker in those strings is replaced,
+ * while the parts of the query without the marker are shared between all bound
+ * filters.
+ *
+ * <p>
+ * Binding gives the same filter as replacing the marker in the text and
+ * parsing the result, except that the value is always inserted as string
+ * content and can not change the structure of the query.
+ * </p>
+ */
+public final class MongoQueryTemplate {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MongoQueryTemplate.class);
+
+    private static final String PROBE_VALUE = "00000000-0000-0000-0000-000000000000";
+
+    private final String query;
+    private final Slot filter;
+    private final boolean idEquality;
+
+    private MongoQueryTemplate(String query, Slot filter, boolean idEquality) {
+        this.query = query;
+        this.filter = filter;
+        this.idEquality = idEquality;
+    }
+
+    /**
+     * Compiles a query containing the marker.
+     *
+     * @param query  the query as JSON
+     * @param marker the placeholder to replace when binding
+     * @return the template, or null if the query is not valid JSON or has the
+     *         marker somewhere else than in string values
+     */
+    public static MongoQueryTemplate compile(String query, String marker) {
+        if (query == null || marker == null || marker.isEmpty() || !query.contains(marker)) {
+            return null;
+        }
+        try {
+            Document parsed = Document.parse(query);
+            MarkerCounter counter = new MarkerCounter(marker);
+            Slot filter = compileValue(parsed, counter);
+            if (filter == null || counter.count != countMarkers(query, marker)) {
+                LOGGER.debug("Query {} has the marker {} outside string values.", query, marker);
+                return null;
+            }
+            if (!Document.parse(query.replace(marker, PROBE_VALUE)).equals(filter.bind(PROBE_VALUE))) {
+                LOGGER.debug("Query {} changes when the marker {} is bound.", query, marker);
+                return null;
+            }
+            boolean idEquality = parsed.size() == 1 && marker.equals(parsed.get(MongoConstants.ID));
+            return new MongoQueryTemplate(query, filter, idEquality);
+        } catch (RuntimeException e) {
+            LOGGER.debug("Query {} could not be compiled.", query, e);
+            return null;
+        }
+    }
+
+    /**
+     * Creates a query with the marker replaced by the given value.
+     *
+     * @param value the value to insert
+     * @return the query
+     */
+    public MongoBsonQuery bind(String value) {
+        return new MongoBsonQuery((Document) filter.bind(value), idEquality);
+    }
+
+    /**
+     * Returns true if the query only matches _id against the marker, for example
+     * <code>{"_id": "%IdentifyRulesEventId%"}</code>.
+     *
+     * @return true for an _id equality
+     */
+    public boolean isIdEquality() {
+        return idEquality;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    @Override
+    public String toString() {
+        return query;
+    }
+
+    private static Slot compileValue(Object value, MarkerCounter counter) {
+        if (value instanceof Map) {
+            return compileDocument(value, counter);
+        } else if (value instanceof List) {
+            return compileList((List<?>) value, counter);
+        } else if (value instanceof String && ((String) value).contains(counter.marker)) {
+            counter.count += countMarkers((String) value, counter.marker);
+            return new StringSlot((String) value, counter.marker);
+        }
+        return new ConstantSlot(value);
+    }
+
+    private static Slot compileDocument(Object value, MarkerCounter counter) {
+        Map<?, ?> document = (Map<?, ?>) value;
+        List<String> keys = new ArrayList<>();
+        List<Slot> slots = new ArrayList<>();
+        boolean constant = true;
+        for (Map.Entry<?, ?> entry : document.entrySet()) {
+            String key = entry.getKey().toString();
+            if (key.contains(counter.marker)) {
+                return null;
+            }
+            Slot slot = compileValue(entry.getValue(), counter);
+            if (slot == null) {
+                return null;
+            }
+            constant &= slot instanceof ConstantSlot;
+            keys.add(key);
+            slots.add(slot);
+        }
+        return constant ? new ConstantSlot(value) : new DocumentSlot(keys, slots);
+    }
+
+    private static Slot compileList(List<?> list, MarkerCounter counter) {
+        List<Slot> slots = new ArrayList<>();
+        boolean constant = true;
+        for (Object element : list) {
+            Slot slot = compileValue(element, counter);
+            if (slot == null) {
+                return null;
+            }
+            constant &= slot instanceof ConstantSlot;
+            slots.add(slot);
+        }
+        return constant ? new ConstantSlot(list) : new ListSlot(slots);
+    }
+
+    private static int countMarkers(String text, String marker) {
+        int count = 0;
+        int index = text.indexOf(marker);
+        while (index >= 0) {
+            count++;
+            index = text.indexOf(marker, index + marker.length());
+        }
+        return count;
+    }
+
+    private static final class MarkerCounter {
+        private final String marker;
+        private int count;
+
+        private MarkerCounter(String marker) {
+            this.marker = marker;
+        }
+    }
+
+    private interface Slot {
+        Object bind(String value);
+    }
+
+    private static final class ConstantSlot implements Slot {
+        private final Object value;
+
+        private ConstantSlot(Object value) {
+            this.value = value;
+        }
+
+        @Override
+        public Object bind(String bound) {
+            return value;
+        }
+    }
+
+    private static final class StringSlot implements Slot {
+        private final String template;
+        private final String marker;
+
+        private StringSlot(String template, String marker) {
+            this.template = template;
+            this.marker = marker;
+        }
+
+        @Override
+        public Object bind(String value) {
+            return template.replace(marker, value);
+        }
+    }
+
+    private static final class DocumentSlot implements Slot {
+        private final List<String> keys;
+        private final List<Slot> slots;
+
+        private DocumentSlot(List<String> keys, List<Slot> slots) {
+            this.keys = keys;
+            this.slots = slots;
+        }
+
+        @Override
+        public Object bind(String value) {
+            Document document = new Document();
+            for (int i = 0; i < keys.size(); i++) {
+                document.append(keys.get(i), slots.get(i).bind(value));
+            }
+            return document;
+        }
+    }
+
+    private static final class ListSlot implements Slot {
+        private final List<Slot> slots;
+
+        private ListSlot(List<Slot> slots) {
+            this.slots = slots;
+        }
+
+        @Override
+        public Object bind(String value) {
+            List<Object> list = new ArrayList<>(slots.size());
+            for (Slot slot : slots) {
+                list.add(slot.bind(value));
+            }
+            return list;
+        }
+    }
+}
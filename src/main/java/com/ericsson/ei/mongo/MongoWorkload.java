@@ -0,0 +1,42 @@
+/*
+   Copyright 2026 Ericsson AB.
+   For a full list of individual contributors, please see the commit history.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.ericsson.ei.mongo;
+
+/**
+ * The kinds of work Eiffel Intelligence does in MongoDB. Each kind has a
+ * MongoDBHandler with a client of its own, see {@link MongoClientConfig}, so
+ * its connections, read preference and write concern can be set without
+ * affecting the others.
+ */
+public enum MongoWorkload {
+    /**
+     * Aggregation of events: writes, locks and the reads they depend on, which
+     * always use the primary.
+     */
+    INGESTION,
+    /**
+     * Reads for the REST API and the subscription scans, which may use
+     * secondaries.
+     */
+    QUERY,
+    /**
+     * Writes that can be repeated or lost without affecting the aggregations,
+     * like the waitlist, the failed notifications and the processed event ids,
+     * which may use a relaxed write concern.
+     */
+    RELAXED_WRITE
+}
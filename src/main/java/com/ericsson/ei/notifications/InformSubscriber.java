@@ -22,6 +22,7 @@ import javax.annotation.PostConstruct;
 import javax.mail.internet.MimeMessage;
 
 import com.ericsson.ei.mongo.MongoConstants;
+import org.bson.Document;
 import org.jasypt.exceptions.EncryptionOperationNotPossibleException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,13 +38,15 @@ import com.ericsson.ei.exception.MongoDBConnectionException;
 import com.ericsson.ei.exception.NotificationFailureException;
 import com.ericsson.ei.handlers.DateUtils;
 import com.ericsson.ei.jmespath.JmesPathInterface;
+import com.ericsson.ei.mongo.BulkWriteBuffer;
 import com.ericsson.ei.mongo.MongoDBHandler;
+import com.ericsson.ei.mongo.MongoWorkload;
 import com.ericsson.ei.notifications.HttpRequest.HttpRequestFactory;
 import com.ericsson.ei.utils.SubscriptionField;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.mongodb.BasicDBObject;
-import com.mongodb.MongoWriteException;
+import com.mongodb.client.model.InsertOneModel;
 
 import lombok.Getter;
 import lombok.Setter;
@@ -84,6 +87,9 @@ public class InformSubscriber {
     @Autowired
     private MongoDBHandler mongoDBHandler;
 
+    @Autowired
+    private BulkWriteBuffer bulkWriteBuffer;
+
     @Autowired
     private EmailSender emailSender;
 
@@ -188,11 +194,13 @@ public class InformSubscriber {
      */
     private void saveFailedNotificationToDB(String failedNotification) {
         try {
-            mongoDBHandler.insertDocument(database,
-                    failedNotificationCollectionName, failedNotification);
+            // Not tracked, the event must not be sent back to the queue and notify
+            // the subscriber again if only the record of the failure was lost
+            bulkWriteBuffer.addUntracked(MongoWorkload.RELAXED_WRITE, database,
+                    failedNotificationCollectionName, new InsertOneModel<>(Document.parse(failedNotification)));
             LOGGER.warn("Failed notification saved. Database: {} , Collection: {} ", database,
                     failedNotificationCollectionName);
-        } catch (MongoWriteException e) {
+        } catch (RuntimeException e) {
             LOGGER.warn("Failed to insert the failed notification into database.", e);
         }
     }
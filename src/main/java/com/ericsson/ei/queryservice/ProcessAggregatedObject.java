@@ -14,21 +14,24 @@
 package com.ericsson.ei.queryservice;
 
 import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
+import java.util.stream.Stream;
 
+import org.bson.Document;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.ericsson.ei.mongo.MongoClientConfig;
 import com.ericsson.ei.mongo.MongoCondition;
 import com.ericsson.ei.mongo.MongoDBHandler;
 import com.ericsson.ei.mongo.MongoQuery;
 import com.ericsson.ei.mongo.MongoStringQuery;
+import com.mongodb.BasicDBObject;
 
 /**
  * This class represents the mechanism to extract the aggregated object, which
@@ -46,6 +49,7 @@ public class ProcessAggregatedObject {
     private String aggregationDataBaseName;
 
     @Autowired
+    @Qualifier(MongoClientConfig.QUERY_HANDLER)
     private MongoDBHandler mongoDBHandler;
 
     /**
@@ -105,20 +109,24 @@ public class ProcessAggregatedObject {
      */
     public JSONArray processQueryAggregatedObject(MongoQuery query, String AggregationDataBaseName,
             String AggregationCollectionName) {
-        List<String> allDocuments = mongoDBHandler.find(AggregationDataBaseName, AggregationCollectionName, query);
-        LOGGER.debug("Number of documents returned from {} collection is : {}", AggregationCollectionName, allDocuments.size());
-        Iterator<String> allDocumentsItr = allDocuments.iterator();
         JSONArray jsonArray = new JSONArray();
-        JSONObject doc = null;
-        while (allDocumentsItr.hasNext()) {
-            String temp = allDocumentsItr.next();
-            try {
-                doc = new JSONObject(temp);
-            } catch (Exception e) {
-                LOGGER.error("Failed to parse JSON.", e);
-            }
-            jsonArray.put(doc);
+        try (Stream<Document> allDocuments = mongoDBHandler.streamDocumentObjects(AggregationDataBaseName,
+                AggregationCollectionName, query, 0, 0)) {
+            allDocuments.forEach(document -> {
+                JSONObject doc = null;
+                try {
+                    doc = new JSONObject(new BasicDBObject(document).toString());
+                } catch (Exception e) {
+                    LOGGER.error("Failed to parse JSON.", e);
+                }
+                jsonArray.put(doc);
+            });
+        } catch (Exception e) {
+            LOGGER.error("Failed to retrieve documents.", e);
+            return new JSONArray();
         }
+        LOGGER.debug("Number of documents returned from {} collection is : {}", AggregationCollectionName,
+                jsonArray.length());
         return jsonArray;
     }
 
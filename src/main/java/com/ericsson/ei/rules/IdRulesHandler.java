@@ -17,6 +17,7 @@
 package com.ericsson.ei.rules;
 
 import com.ericsson.ei.exception.MongoDBConnectionException;
+import com.ericsson.ei.handlers.EventContext;
 import com.ericsson.ei.handlers.ExtractionHandler;
 import com.ericsson.ei.jmespath.JmesPathInterface;
 import com.ericsson.ei.waitlist.WaitListStorageHandler;
@@ -51,6 +52,13 @@ public class IdRulesHandler {
 
     public void runIdRules(RulesObject rulesObject, String event, boolean isRedelivered) 
             throws MongoDBConnectionException, Exception {
+        if (event != null) {
+            runIdRules(rulesObject, EventContext.fromString(event), isRedelivered);
+        }
+    }
+
+    public void runIdRules(RulesObject rulesObject, EventContext event, boolean isRedelivered)
+            throws MongoDBConnectionException, Exception {
         if (rulesObject != null && event != null) {
             JsonNode idsJsonObj = getIds(rulesObject, event);
             if (idsJsonObj != null && idsJsonObj.isArray()) {
@@ -66,6 +74,7 @@ public class IdRulesHandler {
                             extractionHandler.runExtraction(rulesObject, id, event, (JsonNode) null, isRedelivered);
                         } else {
                             waitListStorageHandler.addEventToWaitListIfNotExisting(event, rulesObject);
+                            event.markWaitListed();
                         }
                     }
                 }
@@ -74,11 +83,15 @@ public class IdRulesHandler {
     }
 
     public JsonNode getIds(RulesObject rulesObject, String event) {
+        return getIds(rulesObject, EventContext.fromString(event));
+    }
+
+    public JsonNode getIds(RulesObject rulesObject, EventContext event) {
         String idRule = rulesObject.getIdentifyRules();
         JsonNode ids = null;
         if (idRule != null && !idRule.isEmpty()) {
             try {
-                ids = jmesPathInterface.runRuleOnEvent(idRule, event);
+                ids = event.runRule(idRule, rulesObject.getIdentifyRulesExpression(), jmesPathInterface);
             } catch (Exception e) {
                 LOGGER.info("Failed to get ID from event.", e);
             }
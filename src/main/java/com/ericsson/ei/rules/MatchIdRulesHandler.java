@@ -29,6 +29,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import com.ericsson.ei.mongo.MongoQuery;
+import com.ericsson.ei.mongo.MongoQueryTemplate;
 import com.ericsson.ei.mongo.MongoStringQuery;
 import com.ericsson.ei.rules.RulesObject;
 
@@ -48,10 +49,20 @@ public class MatchIdRulesHandler {
      * written in the rules MatchIdRules.
      * */
     public List<String> fetchObjectsById(RulesObject ruleObject, String id) {
-        String matchIdString = ruleObject.getMatchIdRules();
+        RuleTemplate matchIdTemplate = ruleObject.getMatchIdRulesTemplate();
+        MongoQueryTemplate matchIdQueryTemplate = ruleObject.getMatchIdQueryTemplate();
         List<String> objects = new ArrayList<>();
+        if (matchIdQueryTemplate != null && replacementMarker.equals(matchIdTemplate.getMarker())) {
+            return objHandler.findObjectsByCondition(matchIdQueryTemplate.bind(id));
+        }
         try {
-            objects = doFetchObjectsById(matchIdString, id);
+            String fetchQueryString;
+            if (replacementMarker.equals(matchIdTemplate.getMarker()) && matchIdTemplate.containsMarker()) {
+                fetchQueryString = matchIdTemplate.render(id);
+            } else {
+                fetchQueryString = replaceIdInRules(ruleObject.getMatchIdRules(), id);
+            }
+            objects = doFetchObjectsById(fetchQueryString);
         } catch (ReplacementMarkerException e) {
             LOGGER.error("Replacement marker mismatch.", e);
         }
@@ -83,8 +94,7 @@ public class MatchIdRulesHandler {
         }
     }
 
-    private List<String> doFetchObjectsById(String matchIdString, String id) throws ReplacementMarkerException {
-        String fetchQueryString = replaceIdInRules(matchIdString, id);
+    private List<String> doFetchObjectsById(String fetchQueryString) {
         MongoQuery fetchQuery = new MongoStringQuery(fetchQueryString);
         List<String> objects = objHandler.findObjectsByCondition(fetchQuery);
         return objects;
@@ -23,6 +23,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import com.ericsson.ei.exception.MongoDBConnectionException;
+import com.ericsson.ei.handlers.EventContext;
 import com.ericsson.ei.jmespath.JmesPathInterface;
 import com.ericsson.ei.jsonmerge.MergeHandler;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -55,10 +56,21 @@ public class ProcessRulesHandler {
 
     public String runProcessRules(String event, RulesObject rulesObject, String aggregationObject, String objectId, String mergeId) 
             throws MongoExecutionTimeoutException, MongoDBConnectionException {
+        return runProcessRules(EventContext.fromString(event), rulesObject, aggregationObject, objectId, mergeId);
+    }
+
+    public String runProcessRules(EventContext event, RulesObject rulesObject, String aggregationObject, String objectId, String mergeId)
+            throws MongoExecutionTimeoutException, MongoDBConnectionException {
         String processRules = rulesObject.fetchProcessRules();
         if (processRules != null) {
-            String identifyRule = rulesHandler.getRulesForEvent(event).getIdentifyRules();
-            String id = jmespath.runRuleOnEvent(identifyRule, event).get(0).textValue();
+            RulesObject eventRules = event.getRulesObject();
+            if (eventRules == null) {
+                eventRules = rulesHandler.getRulesForEvent(event);
+                event.setRulesObject(eventRules);
+            }
+            String identifyRule = eventRules.getIdentifyRules();
+            String id = event.runRule(identifyRule, eventRules.getIdentifyRulesExpression(), jmespath).get(0)
+                    .textValue();
 
             if(processRules.contains(replacementMarker)) {
                 processRules = processRules.replace(replacementMarker, id);
@@ -0,0 +1,94 @@
+/*
+   Copyright 2026 Ericsson AB.
+   For a full list of individual contributors, please see the commit history.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.ericsson.ei.rules;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A rule containing the replacement marker, split into the parts around the
+ * marker when the rules are loaded. Rendering the template joins the parts with
+ * the replacement value, which gives the same result as replacing every marker
+ * in the rule but without searching the rule text for each event.
+ */
+public final class RuleTemplate {
+
+    private final String rule;
+    private final String marker;
+    private final List<String> parts;
+
+    public RuleTemplate(String rule, String marker) {
+        this.rule = rule;
+        this.marker = marker;
+        this.parts = Collections.unmodifiableList(split(rule, marker));
+    }
+
+    public String getRule() {
+        return rule;
+    }
+
+    public String getMarker() {
+        return marker;
+    }
+
+    /**
+     * @return true if the rule contains at least one replacement marker
+     */
+    public boolean containsMarker() {
+        return parts.size() > 1;
+    }
+
+    /**
+     * Replaces every marker in the rule with the given value.
+     *
+     * @param replacement the value to insert where the marker was
+     * @return the rule with all markers replaced
+     */
+    public String render(String replacement) {
+        if (!containsMarker()) {
+            return rule;
+        }
+        StringBuilder builder = new StringBuilder(rule.length() + parts.size() * replacement.length());
+        builder.append(parts.get(0));
+        for (int i = 1; i < parts.size(); i++) {
+            builder.append(replacement).append(parts.get(i));
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public String toString() {
+        return rule;
+    }
+
+    private static List<String> split(String rule, String marker) {
+        List<String> parts = new ArrayList<>();
+        if (rule == null || marker == null || marker.isEmpty()) {
+            parts.add(rule);
+            return parts;
+        }
+        int start = 0;
+        int index;
+        while ((index = rule.indexOf(marker, start)) >= 0) {
+            parts.add(rule.substring(start, index));
+            start = index + marker.length();
+        }
+        parts.add(rule.substring(start));
+        return parts;
+    }
+}
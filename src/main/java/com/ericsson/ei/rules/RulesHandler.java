@@ -22,7 +22,11 @@ import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.Charset;
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import javax.annotation.PostConstruct;
 
@@ -30,14 +34,18 @@ import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.ericsson.ei.exception.InvalidRulesException;
+import com.ericsson.ei.handlers.EventContext;
 import com.ericsson.ei.jmespath.JmesPathInterface;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.burt.jmespath.Expression;
 import lombok.Setter;
 
 @Component
@@ -47,8 +55,13 @@ public class RulesHandler {
     @Setter
     private String rulesFilePath;
 
+    @Value("${rules.replacement.marker:" + RulesObject.DEFAULT_REPLACEMENT_MARKER + "}")
+    @Setter
+    private String replacementMarker = RulesObject.DEFAULT_REPLACEMENT_MARKER;
+
     private JmesPathInterface jmesPathInterface = new JmesPathInterface();
-    private JsonNode parsedJson;
+    private volatile JsonNode parsedJson;
+    private volatile RulesDispatchTable dispatchTable;
 
     private static final Logger LOGGER = LoggerFactory.getLogger(RulesHandler.class);
 
@@ -58,6 +71,17 @@ public class RulesHandler {
         }
     }
 
+    /**
+     * Uses the shared JMESPath interface, so the expressions compiled when the rules
+     * are loaded are the ones found in its cache when events are handled.
+     *
+     * @param jmesPathInterface the JMESPath interface
+     */
+    @Autowired(required = false)
+    public void setJmesPathInterface(JmesPathInterface jmesPathInterface) {
+        this.jmesPathInterface = jmesPathInterface;
+    }
+
     @PostConstruct
     public void init() throws Exception {
         if (parsedJson == null) {
@@ -67,15 +91,20 @@ public class RulesHandler {
     }
 
     /**
-     * Parses a given String into a JsonNode.
+     * Parses a given String into a JsonNode and compiles all rules in it. The
+     * current rules are kept if the new rules are not valid.
      *
      * @param jsonContent the content to be parsed
      * @throws JsonProcessingException
      * @throws IOException
+     * @throws InvalidRulesException if a rule contains an invalid expression
      */
-    public void setParsedJson(String jsonContent) throws JsonProcessingException, IOException {
+    public void setParsedJson(String jsonContent)
+            throws JsonProcessingException, IOException, InvalidRulesException {
         ObjectMapper objectmapper = new ObjectMapper();
-        parsedJson = objectmapper.readTree(jsonContent);
+        JsonNode rules = objectmapper.readTree(jsonContent);
+        dispatchTable = new RulesDispatchTable(rules);
+        parsedJson = rules;
     }
 
     /**
@@ -85,22 +114,17 @@ public class RulesHandler {
      * @return rules object
      */
     public RulesObject getRulesForEvent(String event) {
-        Iterator<JsonNode> iter = parsedJson.iterator();
-        while (iter.hasNext()) {
-            JsonNode rule = iter.next();
-            String typeRule = rule.get("TypeRule").toString();
-
-            // Remove the surrounding double quote signs
-            typeRule = typeRule.replaceAll("^\"|\"$", "");
-
-            JsonNode result = jmesPathInterface.runRuleOnEvent(typeRule, event);
-            JsonNode type = rule.get("Type");
+        return getRulesForEvent(EventContext.fromString(event));
+    }
 
-            if (result.equals(type)) {
-                return new RulesObject(rule);
-            }
-        }
-        return null;
+    /**
+     * Gets applicable rule for a given event.
+     *
+     * @param eventContext the event
+     * @return rules object
+     */
+    public RulesObject getRulesForEvent(EventContext eventContext) {
+        return dispatchTable.getRulesForEvent(eventContext.getEventJson());
     }
 
     /**
@@ -162,6 +186,17 @@ public class RulesHandler {
         return rulesJsonFileContent;
     }
 
+    /**
+     * Removes the surrounding double quote signs from a TypeRule.
+     *
+     * @param rule the rule
+     * @return the TypeRule expression
+     */
+    private static String getTypeRule(JsonNode rule) {
+        String typeRule = rule.get("TypeRule").toString();
+        return typeRule.replaceAll("^\"|\"$", "");
+    }
+
     /**
      * Checks if the path is using a scheme.
      *
@@ -183,4 +218,72 @@ public class RulesHandler {
             return false;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Lookup table from event type to rule, built once when the rules are loaded.
+     * Rules are grouped by their TypeRule expression and every distinct expression
+     * is evaluated once per event, normally a single evaluation of meta.type. The
+     * result is then looked up among the Type values of the group. When rules use
+     * different TypeRule expressions, the first rule in file order that matches is
+     * selected, as if the rules were scanned one by one.
+     */
+    private final class RulesDispatchTable {
+        private final List<RulesObject> rulesObjects = new ArrayList<>();
+        private final List<TypeRuleGroup> typeRuleGroups;
+
+        private RulesDispatchTable(JsonNode rules) throws InvalidRulesException {
+            Map<String, TypeRuleGroup> groups = new LinkedHashMap<>();
+            for (JsonNode rule : rules) {
+                int index = rulesObjects.size();
+                rulesObjects.add(RulesObject.compile(rule, replacementMarker, jmesPathInterface));
+                JsonNode type = rule.get("Type");
+                if (type == null || rule.get("TypeRule") == null) {
+                    continue;
+                }
+                String typeRule = getTypeRule(rule);
+                TypeRuleGroup group = groups.get(typeRule);
+                if (group == null) {
+                    group = new TypeRuleGroup(compileTypeRule(typeRule));
+                    groups.put(typeRule, group);
+                }
+                group.rulesByType.putIfAbsent(type, index);
+            }
+            typeRuleGroups = new ArrayList<>(groups.values());
+            LOGGER.debug("Loaded {} rules with {} distinct TypeRule expressions", rulesObjects.size(),
+                    typeRuleGroups.size());
+        }
+
+        private Expression<JsonNode> compileTypeRule(String typeRule) throws InvalidRulesException {
+            try {
+                return jmesPathInterface.compile(typeRule);
+            } catch (RuntimeException e) {
+                throw new InvalidRulesException(
+                        String.format("Invalid TypeRule %s: %s", typeRule, e.getMessage()));
+            }
+        }
+
+        private RulesObject getRulesForEvent(JsonNode event) {
+            int matchingIndex = Integer.MAX_VALUE;
+            for (TypeRuleGroup group : typeRuleGroups) {
+                JsonNode result = jmesPathInterface.runExpressionOnJson(group.typeRule, event);
+                Integer index = group.rulesByType.get(result);
+                if (index != null && index < matchingIndex) {
+                    matchingIndex = index;
+                }
+            }
+            if (matchingIndex == Integer.MAX_VALUE) {
+                return null;
+            }
+            return rulesObjects.get(matchingIndex);
+        }
+    }
+
+    private static final class TypeRuleGroup {
+        private final Expression<JsonNode> typeRule;
+        private final Map<JsonNode, Integer> rulesByType = new HashMap<>();
+
+        private TypeRuleGroup(Expression<JsonNode> typeRule) {
+            this.typeRule = typeRule;
+        }
+    }
+}
@@ -16,15 +16,138 @@
 */
 package com.ericsson.ei.rules;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.ericsson.ei.exception.InvalidRulesException;
+import com.ericsson.ei.jmespath.JmesPathInterface;
+import com.ericsson.ei.mongo.MongoQueryTemplate;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.NullNode;
 
+import io.burt.jmespath.Expression;
+
+/**
+ * The rules for one event type. All values are read from the rule when the
+ * object is created and the object is not modified after that, so one instance
+ * can be shared by all threads handling events of the type.
+ *
+ * Rules objects created by {@link #compile(JsonNode, String, JmesPathInterface)}
+ * also hold the compiled JMESPath expressions of the rules that are run on the
+ * events, so the handlers run them without looking them up again.
+ */
 public class RulesObject {
-    private JsonNode rulesObject;
+
+    public static final String DEFAULT_REPLACEMENT_MARKER = "%IdentifyRulesEventId%";
+
+    /**
+     * The fields of a rule holding JMESPath expressions.
+     */
+    public static final List<String> EXPRESSION_FIELDS = Collections.unmodifiableList(Arrays.asList(
+            "TypeRule", "IdRule", "IdentifyRules", "ExtractionRules", "MergeResolverRules",
+            "DownstreamIdentifyRules", "DownstreamExtractionRules", "DownstreamMergeRules",
+            "HistoryIdentifyRules", "HistoryExtractionRules", "HistoryPathRules", "ProcessRules"));
+
+    private final JsonNode rulesObject;
+    private final String templateName;
+    private final String matchIdRules;
+    private final String idRule;
+    private final String identifyRules;
+    private final String extractionRules;
+    private final String mergeRules;
+    private final String downstreamIdentifyRules;
+    private final String downstreamExtractionRules;
+    private final String downstreamMergeRules;
+    private final String historyExtractionRules;
+    private final String historyPathRules;
+    private final String processRules;
+    private final boolean startEventRules;
+    private final boolean needHistoryRule;
+    private final RuleTemplate matchIdRulesTemplate;
+    private final MongoQueryTemplate matchIdQueryTemplate;
+    private final RuleTemplate mergeRulesTemplate;
+    private final Expression<JsonNode> idRuleExpression;
+    private final Expression<JsonNode> identifyRulesExpression;
+    private final Expression<JsonNode> extractionRulesExpression;
+    private final Expression<JsonNode> downstreamIdentifyRulesExpression;
+    private final Expression<JsonNode> downstreamExtractionRulesExpression;
+    private final Expression<JsonNode> historyExtractionRulesExpression;
+    private final Expression<JsonNode> historyPathRulesExpression;
 
     public RulesObject(JsonNode rulesObject) {
+        this(rulesObject, DEFAULT_REPLACEMENT_MARKER, null);
+    }
+
+    private RulesObject(JsonNode rulesObject, String replacementMarker, JmesPathInterface jmesPathInterface) {
         super();
         this.rulesObject = rulesObject;
+        JsonNode templateNameNode = rulesObject.get("TemplateName");
+        this.templateName = templateNameNode != null ? templateNameNode.textValue() : "";
+        this.matchIdRules = getString("MatchIdRules");
+        this.idRule = getTextValue("IdRule");
+        this.identifyRules = getTextValue("IdentifyRules");
+        this.extractionRules = getTextValue("ExtractionRules");
+        this.mergeRules = getTextValue("MergeResolverRules");
+        this.downstreamIdentifyRules = getTextValue("DownstreamIdentifyRules");
+        this.downstreamExtractionRules = getTextValue("DownstreamExtractionRules");
+        this.downstreamMergeRules = getTextValue("DownstreamMergeRules");
+        this.historyExtractionRules = getTextValue("HistoryExtractionRules");
+        this.historyPathRules = getTextValue("HistoryPathRules");
+        this.processRules = getTextValue("ProcessRules");
+        this.startEventRules = hasStringProperty("StartEvent", "yes");
+        this.needHistoryRule = hasStringProperty("NeedHistoryRule", "yes");
+        this.matchIdRulesTemplate = new RuleTemplate(matchIdRules, replacementMarker);
+        this.matchIdQueryTemplate = MongoQueryTemplate.compile(matchIdRules, replacementMarker);
+        this.mergeRulesTemplate = new RuleTemplate(mergeRules, replacementMarker);
+        this.idRuleExpression = compileRule(idRule, replacementMarker, jmesPathInterface);
+        this.identifyRulesExpression = compileRule(identifyRules, replacementMarker, jmesPathInterface);
+        this.extractionRulesExpression = compileRule(extractionRules, replacementMarker, jmesPathInterface);
+        this.downstreamIdentifyRulesExpression = compileRule(downstreamIdentifyRules, replacementMarker,
+                jmesPathInterface);
+        this.downstreamExtractionRulesExpression = compileRule(downstreamExtractionRules, replacementMarker,
+                jmesPathInterface);
+        this.historyExtractionRulesExpression = compileRule(historyExtractionRules, replacementMarker,
+                jmesPathInterface);
+        this.historyPathRulesExpression = compileRule(historyPathRules, replacementMarker, jmesPathInterface);
+    }
+
+    /**
+     * Creates a rules object and compiles all JMESPath expressions in it. Rules
+     * containing the replacement marker are compiled when the marker has been
+     * replaced.
+     *
+     * @param rulesObject       the rule
+     * @param replacementMarker the marker for the ids extracted with IdentifyRules
+     * @param jmesPathInterface used to compile the expressions
+     * @return rules object
+     * @throws InvalidRulesException if an expression in the rule is not valid
+     */
+    public static RulesObject compile(JsonNode rulesObject, String replacementMarker,
+            JmesPathInterface jmesPathInterface) throws InvalidRulesException {
+        for (String field : EXPRESSION_FIELDS) {
+            JsonNode node = rulesObject.get(field);
+            if (node == null || !node.isTextual() || node.textValue().isEmpty()
+                    || node.textValue().contains(replacementMarker)) {
+                continue;
+            }
+            try {
+                jmesPathInterface.compile(node.textValue());
+            } catch (RuntimeException e) {
+                String templateName = rulesObject.path("TemplateName").asText();
+                throw new InvalidRulesException(String.format("Invalid %s in rule %s of type %s: %s", field,
+                        templateName, rulesObject.path("Type").asText(), e.getMessage()));
+            }
+        }
+        return new RulesObject(rulesObject, replacementMarker, jmesPathInterface);
+    }
+
+    private static Expression<JsonNode> compileRule(String rule, String replacementMarker,
+            JmesPathInterface jmesPathInterface) {
+        if (jmesPathInterface == null || rule == null || rule.isEmpty() || rule.contains(replacementMarker)) {
+            return null;
+        }
+        return jmesPathInterface.compile(rule);
     }
 
     public JsonNode getJsonRulesObject() {
@@ -32,54 +155,122 @@ public class RulesObject {
     }
 
     public String getTemplateName() {
-        JsonNode jsonNode = rulesObject.get("TemplateName");
-        if (jsonNode != null)
-            return jsonNode.textValue();
-        return "";
+        return templateName;
     }
 
     public String getMatchIdRules() {
-        return getString("MatchIdRules");
+        return matchIdRules;
+    }
+
+    /**
+     * @return the MatchIdRules split on the replacement marker
+     */
+    public RuleTemplate getMatchIdRulesTemplate() {
+        return matchIdRulesTemplate;
+    }
+
+    /**
+     * @return the MatchIdRules parsed into a query with the replacement marker as
+     *         placeholder, or null if the MatchIdRules can not be used as a template
+     */
+    public MongoQueryTemplate getMatchIdQueryTemplate() {
+        return matchIdQueryTemplate;
     }
 
     public String getIdRule() {
-        return getTextValue("IdRule");
+        return idRule;
+    }
+
+    /**
+     * @return the compiled IdRule, or null if the rules were not compiled or it has none
+     */
+    public Expression<JsonNode> getIdRuleExpression() {
+        return idRuleExpression;
     }
 
     public String getIdentifyRules() {
-        return getTextValue("IdentifyRules");
+        return identifyRules;
+    }
+
+    /**
+     * @return the compiled IdentifyRules, or null if the rules were not compiled or it has none
+     */
+    public Expression<JsonNode> getIdentifyRulesExpression() {
+        return identifyRulesExpression;
     }
 
     public String getExtractionRules() {
-        return getTextValue("ExtractionRules");
+        return extractionRules;
+    }
+
+    /**
+     * @return the compiled ExtractionRules, or null if the rules were not compiled or it has none
+     */
+    public Expression<JsonNode> getExtractionRulesExpression() {
+        return extractionRulesExpression;
     }
 
     public String getMergeRules() {
-        return getTextValue("MergeResolverRules");
+        return mergeRules;
+    }
+
+    /**
+     * @return the MergeResolverRules split on the replacement marker
+     */
+    public RuleTemplate getMergeRulesTemplate() {
+        return mergeRulesTemplate;
     }
 
     public String getDownstreamIdentifyRules() {
-        return getTextValue("DownstreamIdentifyRules");
+        return downstreamIdentifyRules;
+    }
+
+    /**
+     * @return the compiled DownstreamIdentifyRules, or null if the rules were not compiled or it has none
+     */
+    public Expression<JsonNode> getDownstreamIdentifyRulesExpression() {
+        return downstreamIdentifyRulesExpression;
     }
 
     public String getDownstreamExtractionRules() {
-        return getTextValue("DownstreamExtractionRules");
+        return downstreamExtractionRules;
+    }
+
+    /**
+     * @return the compiled DownstreamExtractionRules, or null if the rules were not compiled or it has none
+     */
+    public Expression<JsonNode> getDownstreamExtractionRulesExpression() {
+        return downstreamExtractionRulesExpression;
     }
 
     public String getDownstreamMergeRules() {
-        return getTextValue("DownstreamMergeRules");
+        return downstreamMergeRules;
     }
 
     public String getHistoryExtractionRules() {
-        return getTextValue("HistoryExtractionRules");
+        return historyExtractionRules;
+    }
+
+    /**
+     * @return the compiled HistoryExtractionRules, or null if the rules were not compiled or it has none
+     */
+    public Expression<JsonNode> getHistoryExtractionRulesExpression() {
+        return historyExtractionRulesExpression;
     }
 
     public String getHistoryPathRules() {
-        return getTextValue("HistoryPathRules");
+        return historyPathRules;
+    }
+
+    /**
+     * @return the compiled HistoryPathRules, or null if the rules were not compiled or it has none
+     */
+    public Expression<JsonNode> getHistoryPathRulesExpression() {
+        return historyPathRulesExpression;
     }
 
     public String fetchProcessRules() {
-        return getTextValue("ProcessRules");
+        return processRules;
     }
 
     public String getTextValue(String fieldName) {
@@ -104,12 +295,17 @@ public class RulesObject {
         return (this == other);
     }
 
+    @Override
+    public int hashCode() {
+        return rulesObject.hashCode();
+    }
+
     public boolean isStartEventRules() {
-        return hasStringProperty("StartEvent", "yes");
+        return startEventRules;
     }
 
     public boolean isNeedHistoryRule() {
-        return hasStringProperty("NeedHistoryRule", "yes");
+        return needHistoryRule;
     }
 
     private boolean hasStringProperty(final String key, final String value) {
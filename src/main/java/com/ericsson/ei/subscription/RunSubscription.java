@@ -17,6 +17,7 @@
 package com.ericsson.ei.subscription;
 
 import java.util.Iterator;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,6 +25,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.ericsson.ei.handlers.EventContext;
 import com.ericsson.ei.jmespath.JmesPathInterface;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
@@ -53,6 +55,8 @@ public class RunSubscription {
     @Value("${spring.data.mongodb.database}")
     public String dataBaseName;
 
+    private final ReentrantLock repeatLock = new ReentrantLock();
+
     /**
      * This method matches every condition specified in the subscription Object and
      * if all conditions are matched then only the aggregatedObject is eligible for
@@ -67,6 +71,22 @@ public class RunSubscription {
      */
     public boolean runSubscriptionOnObject(String aggregatedObject, Iterator<JsonNode> requirementIterator,
             JsonNode subscriptionJson, String id) {
+        return runSubscriptionOnObject(EventContext.fromString(aggregatedObject), requirementIterator,
+                subscriptionJson, id);
+    }
+
+    /**
+     * Matches the subscription with an aggregated object like
+     * {@link #runSubscriptionOnObject(String, Iterator, JsonNode, String)}. The
+     * parsed aggregated object and the results of the conditions run on it are
+     * shared with the other subscriptions checked with the same context.
+     *
+     * @param aggregatedObjectContext
+     * @param requirementIterator
+     * @return boolean
+     */
+    public boolean runSubscriptionOnObject(EventContext aggregatedObjectContext,
+            Iterator<JsonNode> requirementIterator, JsonNode subscriptionJson, String id) {
         boolean conditionFulfilled = false;
         int count_condition_fulfillment = 0;
         int count_conditions = 0;
@@ -103,7 +123,7 @@ public class RunSubscription {
             Iterator<JsonNode> conditionIterator = conditions.elements();
             while (conditionIterator.hasNext()) {
                 String condition = conditionIterator.next().get("jmespath").toString().replaceAll("^\"|\"$", "");
-                JsonNode result = jmespath.runRuleOnEvent(condition, aggregatedObject);
+                JsonNode result = aggregatedObjectContext.runRule(condition, jmespath);
                 String resultString = result.toString();
                 resultString = destringify(resultString);
                 boolean resultNotEqualsToNull = !resultString.equals("null");
@@ -121,9 +141,10 @@ public class RunSubscription {
             if (count_conditions != 0 && count_condition_fulfillment == count_conditions) {
                 conditionFulfilled = true;
                 if (subscriptionRepeatFlag.equals("false") && id != null) {
-                    // the keyword 'synchronized' ensures that this part of the code run
-                    // synchronously. Thus avoids race condition.
-                    synchronized (this) {
+                    // the lock ensures that this part of the code run synchronously. Thus
+                    // avoids race condition.
+                    repeatLock.lock();
+                    try {
                         if (!subscriptionRepeatDbHandler.checkIfAggrObjIdExistInSubscriptionAggrIdsMatchedList(
                                 subscriptionName, requirementIndex, id, false)) {
                             LOGGER.debug("Adding matched aggregated object to database:" + dataBaseName);
@@ -132,6 +153,8 @@ public class RunSubscription {
                         } else {
                             conditionFulfilled = false;
                         }
+                    } finally {
+                        repeatLock.unlock();
                     }
                 }
             }
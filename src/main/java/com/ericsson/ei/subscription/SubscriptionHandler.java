@@ -14,19 +14,33 @@
 package com.ericsson.ei.subscription;
 
 import java.util.Iterator;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.ericsson.ei.handlers.EventContext;
+import com.ericsson.ei.mongo.AsyncMongoDBHandler;
+import com.ericsson.ei.mongo.BulkWriteBuffer;
+import com.ericsson.ei.mongo.MongoClientConfig;
 import com.ericsson.ei.mongo.MongoDBHandler;
 import com.ericsson.ei.notifications.InformSubscriber;
 import com.ericsson.ei.utils.SubscriptionField;
+import com.ericsson.ei.utils.VirtualThreads;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
@@ -61,26 +75,126 @@ public class SubscriptionHandler {
 
     @Setter
     @Autowired
+    @Qualifier(MongoClientConfig.QUERY_HANDLER)
     private MongoDBHandler mongoDBHandler;
 
     @Autowired
     private RunSubscription runSubscription;
 
+    @Setter
+    @Autowired
+    private BulkWriteBuffer bulkWriteBuffer;
+
+    @Setter
+    @Autowired
+    private AsyncMongoDBHandler asyncMongoDBHandler;
+
+    @Setter
+    @Value("${threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    private ExecutorService subscriptionExecutor;
+
+    @PostConstruct
+    public void init() {
+        if (virtualThreadsEnabled) {
+            subscriptionExecutor = VirtualThreads.newThreadPerTaskExecutor("Subscription-");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (subscriptionExecutor != null) {
+            subscriptionExecutor.shutdown();
+        }
+    }
+
     /**
      * The method takes a aggregatedObject as argument and fetches all the
      * subscriber from the database in order to match the subscription
-     * conditions in a separate thread.
+     * conditions. When virtual threads are enabled the subscriptions are
+     * matched and notified in parallel.
      *
      * @param aggregatedObject
      * @param id
      */
     public void checkSubscriptionForObject(final String aggregatedObject,
                                            final String id) {
-        List<String> subscriptions = mongoDBHandler.getAllDocuments(
-                database, subscriptionCollectionName);
-        subscriptions.forEach(
-                subscription -> extractConditions(aggregatedObject,
-                        subscription, id));
+        // Subscriptions are read in batches while they are checked, instead of
+        // all of them being loaded before the first one is checked
+        try (Stream<JsonNode> subscriptions = mongoDBHandler.streamJsonNodes(
+                database, subscriptionCollectionName, null, 0, 0)) {
+            checkSubscriptions(subscriptions, aggregatedObject, id);
+        } catch (Exception e) {
+            LOGGER.error("Failed to check subscriptions for event id: {}", id, e);
+        }
+    }
+
+    /**
+     * Same as {@link #checkSubscriptionForObject(String, String)}, with
+     * subscriptions that were read by {@link #fetchSubscriptions()}. Without
+     * them the subscriptions are read from the database.
+     *
+     * @param aggregatedObject
+     * @param id
+     * @param subscriptions    the subscriptions being read, or null
+     */
+    public void checkSubscriptionForObject(final String aggregatedObject,
+                                           final String id,
+                                           final CompletableFuture<Stream<JsonNode>> subscriptions) {
+        if (subscriptions == null) {
+            checkSubscriptionForObject(aggregatedObject, id);
+            return;
+        }
+        try (Stream<JsonNode> subscriptionStream = subscriptions.join()) {
+            checkSubscriptions(subscriptionStream, aggregatedObject, id);
+        } catch (Exception e) {
+            LOGGER.error("Failed to check subscriptions for event id: {}", id, e);
+        }
+    }
+
+    /**
+     * Starts reading the subscriptions in the background, so the first batch
+     * is fetched while the aggregated object is updated. The rest are read in
+     * batches while they are checked, and the stream must be closed.
+     *
+     * @return the subscriptions being read, or null if MongoDB operations do not
+     *         run in the background
+     */
+    public CompletableFuture<Stream<JsonNode>> fetchSubscriptions() {
+        if (asyncMongoDBHandler == null || !asyncMongoDBHandler.isEnabled()) {
+            return null;
+        }
+        return asyncMongoDBHandler.submit(() -> mongoDBHandler.streamJsonNodes(
+                database, subscriptionCollectionName, null, 0, 0));
+    }
+
+    private void checkSubscriptions(Stream<JsonNode> subscriptions, String aggregatedObject,
+            String id) throws ExecutionException {
+        // The aggregated object is parsed once, before the checks share it, so
+        // that all subscriptions search the same tree
+        EventContext aggregatedObjectContext = EventContext.fromString(aggregatedObject);
+        aggregatedObjectContext.getEventJson();
+        if (subscriptionExecutor == null) {
+            subscriptions.forEach(
+                    subscription -> extractConditions(aggregatedObjectContext,
+                            subscription, id));
+            return;
+        }
+        // Each subscription and its notification runs on a virtual thread of
+        // its own, the event is done when all of them are. Their writes are
+        // tracked as writes of the event.
+        List<Future<?>> tasks = new ArrayList<>();
+        subscriptions.forEach(subscription -> tasks.add(subscriptionExecutor.submit(
+                bulkWriteBuffer.withTracking(() -> extractConditions(aggregatedObjectContext, subscription, id)))));
+        try {
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } catch (InterruptedException e) {
+            LOGGER.warn("Interrupted while checking subscriptions for event id: {}", id);
+            Thread.currentThread().interrupt();
+        }
     }
 
     /**
@@ -89,20 +203,20 @@ public class SubscriptionHandler {
      * subscription object and matches these conditions with
      * the aggregatedObject.
      *
-     * @param aggregatedObject
-     * @param subscriptionData
+     * @param aggregatedObjectContext
+     * @param subscriptionJson
      * @param id
      */
-    private void extractConditions(String aggregatedObject,
-                                   String subscriptionData, String id) {
+    private void extractConditions(EventContext aggregatedObjectContext,
+                                   JsonNode subscriptionJson, String id) {
+        String aggregatedObject = aggregatedObjectContext.getEventText();
         try {
-            JsonNode subscriptionJson = new ObjectMapper().readTree(
-                subscriptionData);
-			
-            // Remove password  from subscription details and put empty value before logging.
-			JsonNode subscriptoinToDisplay = new ObjectMapper().readTree(subscriptionJson.toString());
-			LOGGER.debug("SubscriptionJson : {}",
-					((ObjectNode) subscriptoinToDisplay).put("password", "").toPrettyString());
+            if (LOGGER.isDebugEnabled()) {
+                // Remove password  from subscription details and put empty value before logging.
+                JsonNode subscriptoinToDisplay = subscriptionJson.deepCopy();
+                LOGGER.debug("SubscriptionJson : {}",
+                        ((ObjectNode) subscriptoinToDisplay).put("password", "").toPrettyString());
+            }
 
             LOGGER.debug("Aggregated Object : {} for event id: {}", aggregatedObject, id);
             ArrayNode requirementNode = (ArrayNode) subscriptionJson.get(
@@ -111,7 +225,7 @@ public class SubscriptionHandler {
             Iterator<JsonNode> requirementIterator = requirementNode.elements();
             SubscriptionField subscriptionField = new SubscriptionField(subscriptionJson);
             String subscriptionName = subscriptionField.get("subscriptionName");
-            if (runSubscription.runSubscriptionOnObject(aggregatedObject,
+            if (runSubscription.runSubscriptionOnObject(aggregatedObjectContext,
                 requirementIterator, subscriptionJson, id)) {
                 LOGGER.debug(
                     "The subscription conditions match for the aggregatedObject");
@@ -122,7 +236,7 @@ public class SubscriptionHandler {
             }
         } catch (Exception e) {
             LOGGER.error("Subscription: {}, failed for aggregated object: {}",
-                subscriptionData, aggregatedObject, e);
+                subscriptionJson, aggregatedObject, e);
         }
     }
 }
\ No newline at end of file
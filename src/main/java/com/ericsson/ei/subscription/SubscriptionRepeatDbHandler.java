@@ -23,13 +23,11 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
-import com.mongodb.BasicDBObject;
-import com.mongodb.MongoWriteException;
+import com.mongodb.client.model.Updates;
 
-import java.util.ArrayList;
 import java.util.List;
 
-import org.bson.Document;
+import org.bson.conversions.Bson;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -81,13 +79,14 @@ public class SubscriptionRepeatDbHandler {
             return;
         }
 
-        if (!updateExistingMatchedSubscriptionWithAggrObjId(subscriptionId,
-                requirementId, aggrObjId)) {
-            LOGGER.debug(
-                    "New Subscription AggrId has not matched, inserting new SubscriptionId"
-                            + "and AggrObjId to matched list.");
-
-            insertNewMatchedAggregationToDatabase(subscriptionId, requirementId, aggrObjId);
+        // A single upsert adds the id to the matched list of the requirement, or
+        // creates the document of the subscription if it has not matched before.
+        // It is written at once, not batched, since the next check of the
+        // subscription must see it to not notify the subscriber again.
+        final MongoCondition subscriptionQuery = MongoCondition.subscriptionCondition(subscriptionId);
+        Bson update = Updates.addToSet("requirements." + requirementId, aggrObjId);
+        if (!mongoDbHandler.updateOne(dataBaseName, collectionName, subscriptionQuery, update, true)) {
+            LOGGER.error("Failed to add the matched aggregated object to the database.");
         }
     }
 
@@ -150,76 +149,6 @@ public class SubscriptionRepeatDbHandler {
         return false;
     }
 
-    private boolean updateExistingMatchedSubscriptionWithAggrObjId(
-            String subscriptionId, int requirementId, String aggrObjId) {
-
-        final MongoCondition subscriptionQuery = MongoCondition.subscriptionCondition(subscriptionId);
-        JsonNode updateDocJsonNode = prepareQueryToUpdateAggregation(subscriptionId, requirementId,
-                aggrObjId);
-
-        Document document = null;
-
-        document = mongoDbHandler.findAndModify(dataBaseName, collectionName,
-                subscriptionQuery, updateDocJsonNode.toString());
-        if (document != null && !document.isEmpty()) {
-            LOGGER.debug(
-                    "Successfully updated Matched Subscription Aggregated Object list:"
-                            + "\nfor subscriptionId: {}"
-                            + "\nwith Aggregated Object Id: {}"
-                            + "\nwith matched Requirement Id: {}",
-                    subscriptionId, aggrObjId, requirementId);
-            return true;
-        }
-
-        LOGGER.warn(
-                "Failed to update existing matched SubscriptionId with new AggrId."
-                        + "SubscriptionId: {} "
-                        + "New matched AggrObjId: {} "
-                        + "RequirementId that have matched: {}",
-                subscriptionId, aggrObjId, requirementId);
-        return false;
-    }
-
-    private void insertNewMatchedAggregationToDatabase(String subscriptionId,
-            int requirementId, String aggrObjId) {
-        try {
-            BasicDBObject document = new BasicDBObject();
-            document.put("subscriptionId", subscriptionId);
-
-            ArrayList<String> aggrObjIdsList = new ArrayList<String>();
-            aggrObjIdsList.add(aggrObjId);
-
-            BasicDBObject reqDocument = new BasicDBObject();
-            reqDocument.put(String.valueOf(requirementId), aggrObjIdsList);
-
-            document.put("requirements", reqDocument);
-
-            LOGGER.debug("New matched aggregated object id update"
-                    + "on subscription to be inserted to Db: {}",
-                    document);
-            mongoDbHandler.insertDocument(dataBaseName, collectionName, document.toString());
-        } catch (MongoWriteException e) {
-            LOGGER.error("Failed to insert the document into database.", e);
-        }
-    }
-
-    private JsonNode prepareQueryToUpdateAggregation(String subscriptionId,
-            int requirementId, String aggrObjId) {
-        try {
-            String json = "{\"$push\": { \"requirements." + requirementId + "\": \"" + aggrObjId
-                    + "\"}}";
-            JsonNode updateDocJsonNode = mapper.readValue(json, JsonNode.class);
-            LOGGER.debug(
-                    "SubscriptionId \"{}\" document will be updated with "
-                            + "following requirement update object: {}",
-                    subscriptionId, updateDocJsonNode.toString());
-            return updateDocJsonNode;
-        } catch (Exception e) {
-            LOGGER.error("Failed to create query for updating aggregated object.", e);
-        }
-        return null;
-    }
-
     private boolean checkRequirementIdTriggered(JsonNode jNode,
             int requirementId, String aggrObjId) throws Exception {
         ObjectReader reader = mapper.readerFor(new TypeReference<List<String>>() {
@@ -18,6 +18,7 @@ package com.ericsson.ei.waitlist;
 
 import com.ericsson.ei.exception.AbortExecutionException;
 import com.ericsson.ei.exception.MongoDBConnectionException;
+import com.ericsson.ei.handlers.EventContext;
 import com.ericsson.ei.jmespath.JmesPathInterface;
 import com.ericsson.ei.mongo.*;
 import com.ericsson.ei.rules.RulesObject;
@@ -28,9 +29,11 @@ import com.mongodb.MongoWriteException;
 import lombok.Getter;
 import lombok.Setter;
 
+import org.bson.Document;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -39,6 +42,7 @@ import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
 
 import javax.annotation.PostConstruct;
 
@@ -60,6 +64,7 @@ public class WaitListStorageHandler {
 
     @Setter
     @Autowired
+    @Qualifier(MongoClientConfig.RELAXED_WRITE_HANDLER)
     private MongoDBHandler mongoDbHandler;
 
     @Setter
@@ -86,28 +91,33 @@ public class WaitListStorageHandler {
      */
     public void addEventToWaitListIfNotExisting(String event, RulesObject rulesObject)
             throws MongoDBConnectionException {
+        addEventToWaitListIfNotExisting(EventContext.fromString(event), rulesObject);
+    }
+
+    /**
+     * Adds event to the waitlist database if it does not already exists.
+     *
+     * @param event The event that will be added to database
+     * @param rulesObject Rules for extracting a unique identifier from an event object to be used as document id
+     * @throws MongoDBConnectionException
+     */
+    public void addEventToWaitListIfNotExisting(EventContext event, RulesObject rulesObject)
+            throws MongoDBConnectionException {
         try {
             JsonNode id = extractIdFromEventUsingRules(event, rulesObject);
-            String foundEvent = findEventInWaitList(id.textValue());
-            if (foundEvent.isEmpty()) {
+            if (!isEventInWaitList(id.textValue())) {
                 Date date = createCurrentTimeStamp();
-                BasicDBObject document = createWaitListDocument(event, id, date);
-                mongoDbHandler.insertDocument(databaseName, waitlistCollectionName, document.toString());
+                Document document = createWaitListDocument(event, id, date);
+                mongoDbHandler.insertDocumentObject(databaseName, waitlistCollectionName, document);
             }
         } catch (MongoWriteException e) {
             LOGGER.debug("Failed to insert event into waitlist.", e);
         }
     }
 
-    private String findEventInWaitList(String id) {
-        final MongoCondition condition = MongoCondition.idCondition(id);
-        List<String> foundEventsInWaitList = mongoDbHandler.find(databaseName,
-                waitlistCollectionName, condition);
-        if (foundEventsInWaitList.isEmpty()) {
-            return "";
-        }
-        String foundEvent = foundEventsInWaitList.get(0);
-        return foundEvent;
+    private boolean isEventInWaitList(String id) {
+        return mongoDbHandler.exists(databaseName, waitlistCollectionName,
+                MongoBsonQuery.idQuery(id));
     }
 
     public boolean dropDocumentFromWaitList(String document) {
@@ -119,12 +129,23 @@ public class WaitListStorageHandler {
         return mongoDbHandler.getAllDocuments(databaseName, waitlistCollectionName);
     }
 
-    private BasicDBObject createWaitListDocument(String event, JsonNode id, Date date)
+    /**
+     * Streams the documents in the waitlist, fetching them from the database in
+     * batches while the stream is consumed. The stream must be closed.
+     *
+     * @return the waitlist documents
+     */
+    public Stream<String> streamWaitList() {
+        return mongoDbHandler.streamDocumentObjects(databaseName, waitlistCollectionName, null, 0, 0)
+                             .map(document -> new BasicDBObject(document).toString());
+    }
+
+    private Document createWaitListDocument(EventContext event, JsonNode id, Date date)
             throws MongoDBConnectionException {
-        BasicDBObject document = new BasicDBObject();
+        Document document = new Document();
         document.put(MongoConstants.ID, id.textValue());
         document.put(MongoConstants.TIME, date);
-        document.put(MongoConstants.EVENT, event);
+        document.put(MongoConstants.EVENT, event.getEventText());
         return document;
     }
 
@@ -140,9 +161,9 @@ public class WaitListStorageHandler {
         return date;
     }
 
-    private JsonNode extractIdFromEventUsingRules(String event, RulesObject rulesObject) {
+    private JsonNode extractIdFromEventUsingRules(EventContext event, RulesObject rulesObject) {
         String idRule = rulesObject.getIdRule();
-        JsonNode id = jmesPathInterface.runRuleOnEvent(idRule, event);
+        JsonNode id = event.runRule(idRule, rulesObject.getIdRuleExpression(), jmesPathInterface);
         return id;
     }
 
@@ -17,15 +17,24 @@
 package com.ericsson.ei.waitlist;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
 
 import javax.annotation.PreDestroy;
 
 import com.ericsson.ei.mongo.MongoConstants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.connection.CorrelationData.Confirm;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
@@ -39,6 +48,10 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mongodb.MongoClientException;
 
+import io.burt.jmespath.Expression;
+
+import lombok.Setter;
+
 @Component
 public class WaitListWorker {
     private static final Logger LOGGER = LoggerFactory.getLogger(WaitListWorker.class);
@@ -61,6 +74,14 @@ public class WaitListWorker {
     @Autowired
     private EventToObjectMapHandler eventToObjectMapHandler;
 
+    @Setter
+    @Value("${waitlist.publish.batch.size:100}")
+    private int publishBatchSize;
+
+    @Setter
+    @Value("${waitlist.publish.confirm.timeout:5000}")
+    private long confirmTimeout;
+
     private boolean shutdownInProgress = false;
 
     @Scheduled(initialDelayString = "${waitlist.resend.initial.delay}", fixedRateString = "${waitlist.resend.fixed.rate}")
@@ -76,28 +97,55 @@ public class WaitListWorker {
     }
 
     private void getAllDocumentsAndCheckTargetAggregations() {
-        List<String> documents = waitListStorageHandler.getWaitList();
-        for (String document : documents) {
-            try {
-                checkAggregationsExistAndRepublishEvent(document);
-            } catch (Exception e) {
-                LOGGER.error("Exception occured while trying to resend event: {}", document, e);
+        List<PublishedDocument> published = new ArrayList<>();
+        try (Stream<String> documents = waitListStorageHandler.streamWaitList()) {
+            Iterator<String> iterator = documents.iterator();
+            while (iterator.hasNext()) {
+                checkAndPublish(iterator.next(), published);
+            }
+        }
+        dropConfirmedDocuments(published);
+    }
+
+    private void checkAndPublish(String document, List<PublishedDocument> published) {
+        try {
+            CorrelationData correlationData = checkAggregationsExistAndRepublishEvent(document);
+            if (correlationData != null) {
+                published.add(new PublishedDocument(document, correlationData));
+                if (published.size() >= publishBatchSize) {
+                    dropConfirmedDocuments(published);
+                    published.clear();
+                }
             }
+        } catch (Exception e) {
+            LOGGER.error("Exception occured while trying to resend event: {}", document, e);
         }
     }
 
-    private void checkAggregationsExistAndRepublishEvent(String document) throws IOException {
+    private CorrelationData checkAggregationsExistAndRepublishEvent(String document) throws IOException {
         ObjectMapper objectMapper = new ObjectMapper();
         JsonNode eventJson = objectMapper.readTree(document);
         String id = eventJson.get(MongoConstants.ID).asText();
         if (eventToObjectMapHandler.isEventInEventObjectMap(id)) {
             waitListStorageHandler.dropDocumentFromWaitList(document);
-        } else {
-            checkTargetAggregationsExistAndRepublishEvent(eventJson);
+            return null;
         }
+        return checkTargetAggregationsExistAndRepublishEvent(eventJson);
     }
 
-    public void checkTargetAggregationsExistAndRepublishEvent(JsonNode eventJson) {
+    /**
+     * Publishes the event of a waitlist document to the waitlist queue if an
+     * aggregated object it belongs to exists. The event is published once, even
+     * if it belongs to several aggregated objects, since processing it updates
+     * all of them. The confirm is correlated with the _id of the waitlist
+     * document.
+     *
+     * @param eventJson the waitlist document
+     * @return the correlation data of the published event, or null if it was
+     *         not published
+     */
+    public CorrelationData checkTargetAggregationsExistAndRepublishEvent(JsonNode eventJson) {
+        String documentId = eventJson.get(MongoConstants.ID).textValue();
         JsonNode event = eventJson.get(MongoConstants.EVENT);
         String eventStr = event.asText();
         RulesObject rulesObject = rulesHandler.getRulesForEvent(eventStr);
@@ -105,21 +153,74 @@ public class WaitListWorker {
         // waitlistId is only used for debugging and tests
         int waitlistId = this.hashCode();
         if (idRule != null && !idRule.isEmpty()) {
-            JsonNode ids = jmesPathInterface.runRuleOnEvent(idRule, eventStr);
+            Expression<JsonNode> expression = rulesObject.getIdentifyRulesExpression();
+            JsonNode ids = expression != null ? jmesPathInterface.runExpressionOnEvent(expression, eventStr)
+                    : jmesPathInterface.runRuleOnEvent(idRule, eventStr);
             if (ids.isArray()) {
-                JsonNode idNode = eventJson.get(MongoConstants.ID);
                 JsonNode timeNode = eventJson.get(MongoConstants.TIME);
-                LOGGER.debug("[EIFFEL EVENT RESENT FROM WAITLIST: {}] id:{} time:{}", waitlistId, idNode.textValue(),
+                LOGGER.debug("[EIFFEL EVENT RESENT FROM WAITLIST: {}] id:{} time:{}", waitlistId, documentId,
                         timeNode);
-                for (final JsonNode idJsonObj : ids) {
+                for (final JsonNode aggregationId : ids) {
                     Collection<String> objects = matchIdRulesHandler.fetchObjectsById(rulesObject,
-                            idJsonObj.textValue());
+                            aggregationId.textValue());
                     if (!objects.isEmpty()) {
-                        rmqHandler.publishObjectToWaitlistQueue(eventStr);
+                        CorrelationData correlationData = new CorrelationData(documentId);
+                        rmqHandler.publishObjectToWaitlistQueueWithConfirm(eventStr, correlationData);
+                        return correlationData;
                     }
                 }
             }
         }
+        return null;
+    }
+
+    /**
+     * Waits for the broker to confirm the published events and removes the
+     * documents of the confirmed ones from the waitlist. The events are
+     * published as mandatory, and an event that the broker returned because it
+     * could not be routed to a queue is not confirmed even if it is acked.
+     * Documents of events that are not confirmed in time are kept and
+     * published again in the next run.
+     *
+     * @param published the documents whose events have been published
+     */
+    private void dropConfirmedDocuments(List<PublishedDocument> published) {
+        long deadline = System.currentTimeMillis() + confirmTimeout;
+        for (PublishedDocument publishedDocument : published) {
+            try {
+                long remaining = Math.max(0, deadline - System.currentTimeMillis());
+                Confirm confirm = publishedDocument.correlationData.getFuture().get(remaining,
+                        TimeUnit.MILLISECONDS);
+                if (confirm.isAck() && publishedDocument.correlationData.getReturned() != null) {
+                    LOGGER.warn("Event {} could not be routed to the waitlist queue: {}",
+                            publishedDocument.correlationData.getId(),
+                            publishedDocument.correlationData.getReturned().getReplyText());
+                } else if (confirm.isAck()) {
+                    waitListStorageHandler.dropDocumentFromWaitList(publishedDocument.document);
+                } else {
+                    LOGGER.warn("Event {} was not accepted by the broker: {}",
+                            publishedDocument.correlationData.getId(), confirm.getReason());
+                }
+            } catch (TimeoutException e) {
+                LOGGER.warn("No confirm received for event {}, it is kept in the waitlist.",
+                        publishedDocument.correlationData.getId());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                LOGGER.error("Failed to get confirm for event {}", publishedDocument.correlationData.getId(), e);
+            }
+        }
+    }
+
+    private static final class PublishedDocument {
+        private final String document;
+        private final CorrelationData correlationData;
+
+        private PublishedDocument(String document, CorrelationData correlationData) {
+            this.document = document;
+            this.correlationData = correlationData;
+        }
     }
 
     @PreDestroy
@@ -0,0 +1,141 @@
+/*
+   Copyright 2026 Ericsson AB.
+   For a full list of individual contributors, please see the commit history.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.ericsson.ei.handlers.test;
+
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import com.ericsson.ei.handlers.AckCoordinator;
+import com.rabbitmq.client.Channel;
+
+public class AckCoordinatorTest {
+
+    private AckCoordinator ackCoordinator;
+    private Channel channel;
+
+    @Before
+    public void setUp() {
+        ackCoordinator = new AckCoordinator();
+        ackCoordinator.setBatchSize(4);
+        channel = Mockito.mock(Channel.class);
+        when(channel.isOpen()).thenReturn(true);
+    }
+
+    @Test
+    public void testContiguousTagsAreAckedTogether() throws Exception {
+        ackCoordinator.ack(channel, 2);
+        ackCoordinator.ack(channel, 1);
+        ackCoordinator.ack(channel, 3);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+
+        ackCoordinator.flushAll();
+        verify(channel).basicAck(3, true);
+
+        ackCoordinator.ack(channel, 4);
+        ackCoordinator.flushAll();
+        verify(channel).basicAck(4, true);
+    }
+
+    @Test
+    public void testTagsAfterAGapAreAckedOneByOne() throws Exception {
+        ackCoordinator.ack(channel, 1);
+        ackCoordinator.ack(channel, 3);
+        ackCoordinator.ack(channel, 4);
+        ackCoordinator.flushAll();
+
+        InOrder inOrder = Mockito.inOrder(channel);
+        inOrder.verify(channel).basicAck(1, true);
+        inOrder.verify(channel).basicAck(3, false);
+        inOrder.verify(channel).basicAck(4, false);
+
+        // Once the gap is settled the range continues after it
+        ackCoordinator.ack(channel, 2);
+        ackCoordinator.ack(channel, 5);
+        ackCoordinator.flushAll();
+        inOrder.verify(channel).basicAck(5, true);
+    }
+
+    @Test
+    public void testGapIsGivenUpAfterTooManyTags() throws Exception {
+        ackCoordinator.setBatchSize(100);
+        ackCoordinator.setMaxTrackedTags(3);
+        ackCoordinator.ack(channel, 1);
+        for (long tag = 3; tag <= 6; tag++) {
+            ackCoordinator.ack(channel, tag);
+        }
+        ackCoordinator.flushAll();
+        InOrder inOrder = Mockito.inOrder(channel);
+        inOrder.verify(channel).basicAck(1, true);
+        inOrder.verify(channel).basicAck(3, false);
+
+        // The missing tag still stops a multiple acknowledgement
+        ackCoordinator.ack(channel, 7);
+        ackCoordinator.flushAll();
+        inOrder.verify(channel).basicAck(7, false);
+
+        ackCoordinator.ack(channel, 2);
+        ackCoordinator.ack(channel, 8);
+        ackCoordinator.flushAll();
+        inOrder.verify(channel).basicAck(8, true);
+    }
+
+    @Test
+    public void testBatchSizeFlushesWithoutWaiting() throws Exception {
+        for (long tag = 1; tag <= 4; tag++) {
+            ackCoordinator.ack(channel, tag);
+        }
+        verify(channel).basicAck(4, true);
+    }
+
+    @Test
+    public void testNackIsSentAtOnceAndSettlesTheTag() throws Exception {
+        ackCoordinator.ack(channel, 1);
+        ackCoordinator.nack(channel, 2, true);
+        verify(channel).basicNack(2, false, true);
+
+        ackCoordinator.ack(channel, 3);
+        ackCoordinator.flushAll();
+        verify(channel).basicAck(3, true);
+        verify(channel, never()).basicAck(1, true);
+    }
+
+    @Test
+    public void testNackOnClosedChannelIsSkipped() throws Exception {
+        when(channel.isOpen()).thenReturn(false);
+        ackCoordinator.nack(channel, 1, true);
+        verify(channel, never()).basicNack(anyLong(), anyBoolean(), anyBoolean());
+    }
+
+    @Test
+    public void testBatchSizeOneAcksAtOnce() throws Exception {
+        ackCoordinator.setBatchSize(1);
+        ackCoordinator.ack(channel, 1);
+        ackCoordinator.nack(channel, 2, false);
+        verify(channel).basicAck(1, false);
+        verify(channel).basicNack(2, false, false);
+        verify(channel, never()).basicAck(anyLong(), eq(true));
+    }
+}
@@ -0,0 +1,151 @@
+/*
+   Copyright 2026 Ericsson AB.
+   For a full list of individual contributors, please see the commit history.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.ericsson.ei.handlers.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import com.ericsson.ei.handlers.AckCoordinator;
+import com.ericsson.ei.handlers.ConfirmedPublisher;
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.ConfirmListener;
+import com.rabbitmq.client.ReturnListener;
+import com.rabbitmq.client.ShutdownListener;
+import com.rabbitmq.client.ShutdownSignalException;
+
+public class ConfirmedPublisherTest {
+
+    private static final String QUEUE_NAME = "ConfirmedPublisherTest.retry.1000";
+
+    private ConfirmedPublisher publisher;
+    private Channel channel;
+
+    @Before
+    public void setUp() throws Exception {
+        AckCoordinator ackCoordinator = new AckCoordinator();
+        ackCoordinator.setBatchSize(1);
+        publisher = new ConfirmedPublisher();
+        publisher.setConfirmTimeout(1000);
+        publisher.setAckCoordinator(ackCoordinator);
+        channel = mock(Channel.class);
+        when(channel.isOpen()).thenReturn(true);
+        // The first call puts the channel in confirm mode, the copies get 1, 2, ...
+        when(channel.getNextPublishSeqNo()).thenReturn(0L, 1L, 2L, 3L);
+    }
+
+    @Test
+    public void testMessagesAreAckedWhenCopiesAreConfirmed() throws Exception {
+        publisher.publishCopy(createMessage(3), channel, "", QUEUE_NAME);
+        publisher.publishCopy(createMessage(4), channel, "", QUEUE_NAME);
+        // The caller does not wait for the confirms
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+
+        confirmListener().handleAck(2, true);
+
+        verify(channel).basicAck(3, false);
+        verify(channel).basicAck(4, false);
+        verify(channel, times(1)).confirmSelect();
+        ArgumentCaptor<AMQP.BasicProperties> properties = ArgumentCaptor.forClass(AMQP.BasicProperties.class);
+        verify(channel, times(2)).basicPublish(eq(""), eq(QUEUE_NAME), eq(true), properties.capture(),
+                eq("{}".getBytes()));
+        assertEquals(Integer.valueOf(2), properties.getValue().getDeliveryMode());
+    }
+
+    @Test
+    public void testMessageIsSentBackIfCopyIsNacked() throws Exception {
+        publisher.publishCopy(createMessage(3), channel, "", QUEUE_NAME);
+        publisher.publishCopy(createMessage(4), channel, "", QUEUE_NAME);
+
+        confirmListener().handleNack(1, false);
+        confirmListener().handleAck(2, false);
+
+        verify(channel).basicNack(3, false, true);
+        verify(channel).basicAck(4, false);
+    }
+
+    @Test
+    public void testMessageIsSentBackIfCopyIsReturned() throws Exception {
+        publisher.publishCopy(createMessage(3), channel, "", QUEUE_NAME);
+        ArgumentCaptor<AMQP.BasicProperties> properties = ArgumentCaptor.forClass(AMQP.BasicProperties.class);
+        verify(channel).basicPublish(anyString(), anyString(), anyBoolean(), properties.capture(), any(byte[].class));
+        ArgumentCaptor<ReturnListener> returnListener = ArgumentCaptor.forClass(ReturnListener.class);
+        verify(channel).addReturnListener(returnListener.capture());
+
+        returnListener.getValue().handleReturn(312, "NO_ROUTE", "", QUEUE_NAME, properties.getValue(), new byte[0]);
+        confirmListener().handleAck(1, false);
+
+        verify(channel).basicNack(3, false, true);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+    }
+
+    @Test
+    public void testMessageIsSentBackIfCopyIsNotConfirmed() throws Exception {
+        publisher.setConfirmTimeout(10);
+        publisher.publishCopy(createMessage(3), channel, "", QUEUE_NAME);
+        verify(channel, timeout(1000)).basicNack(3, false, true);
+
+        // Confirms never arrive once the channel is closed
+        publisher.setConfirmTimeout(60000);
+        publisher.publishCopy(createMessage(4), channel, "", QUEUE_NAME);
+        ArgumentCaptor<ShutdownListener> shutdownListener = ArgumentCaptor.forClass(ShutdownListener.class);
+        verify(channel).addShutdownListener(shutdownListener.capture());
+        shutdownListener.getValue().shutdownCompleted(mock(ShutdownSignalException.class));
+        verify(channel).basicNack(4, false, true);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+    }
+
+    @Test
+    public void testMessageIsSentBackIfPublishFails() throws Exception {
+        doThrow(new IOException("closed")).when(channel)
+                .basicPublish(anyString(), anyString(), anyBoolean(), any(AMQP.BasicProperties.class), any(byte[].class));
+        publisher.publishCopy(createMessage(5), channel, "", QUEUE_NAME);
+        verify(channel).basicNack(5, false, true);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+    }
+
+    private ConfirmListener confirmListener() {
+        ArgumentCaptor<ConfirmListener> listener = ArgumentCaptor.forClass(ConfirmListener.class);
+        verify(channel).addConfirmListener(listener.capture());
+        return listener.getValue();
+    }
+
+    private Message createMessage(long deliveryTag) {
+        MessageProperties properties = new MessageProperties();
+        properties.setDeliveryTag(deliveryTag);
+        return new Message("{}".getBytes(), properties);
+    }
+}
@@ -0,0 +1,109 @@
+/*
+   Copyright 2026 Ericsson AB.
+   For a full list of individual contributors, please see the commit history.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.ericsson.ei.handlers.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.ericsson.ei.handlers.EventContext;
+import com.ericsson.ei.jmespath.JmesPathInterface;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+public class EventContextTest {
+
+    private static final String EVENT_PATH = "src/test/resources/EiffelArtifactCreatedEvent.json";
+
+    @Test
+    public void testEventIsParsedOnce() throws Exception {
+        String event = FileUtils.readFileToString(new File(EVENT_PATH), "UTF-8");
+        EventContext eventContext = EventContext.fromString(event);
+
+        JsonNode eventJson = eventContext.getEventJson();
+
+        assertSame(eventJson, eventContext.getEventJson());
+        assertSame(event, eventContext.getEventText());
+        assertEquals("e90daae3-bf3f-4b0a-b899-67834fd5ebd0", eventContext.getEventId());
+    }
+
+    @Test
+    public void testRulesGiveSameResultOnParsedEvent() throws Exception {
+        String event = FileUtils.readFileToString(new File(EVENT_PATH), "UTF-8");
+        JsonNode eventJson = new ObjectMapper().readTree(event);
+        EventContext eventContext = EventContext.fromJson(eventJson);
+        JmesPathInterface jmesPathInterface = new JmesPathInterface();
+        String rule = "{id: meta.id, type: meta.type, identity: data.identity}";
+
+        assertEquals(jmesPathInterface.runRuleOnEvent(rule, event),
+                jmesPathInterface.runRuleOnJson(rule, eventContext.getEventJson()));
+        assertEquals(eventJson, new ObjectMapper().readTree(eventContext.getEventText()));
+    }
+
+    @Test
+    public void testEventIsParsedFromUtf8Body() throws Exception {
+        String event = "{\"meta\":{\"id\":\"e1\"},\"data\":{\"name\":\"\u00e5\u00e4\u00f6\"}}";
+        EventContext eventContext = EventContext.fromBytes(event.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals("e1", eventContext.getEventId());
+        assertEquals("\u00e5\u00e4\u00f6", eventContext.getEventJson().path("data").path("name").textValue());
+        assertEquals(event, eventContext.getEventText());
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidBody() throws Exception {
+        EventContext.fromBytes("not json".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testInvalidEvent() {
+        EventContext eventContext = EventContext.fromString("not json");
+        JmesPathInterface jmesPathInterface = new JmesPathInterface();
+
+        assertNull(eventContext.getEventJson());
+        assertNull(eventContext.getEventId());
+        assertEquals(jmesPathInterface.runRuleOnEvent("meta.id", "not json"),
+                jmesPathInterface.runRuleOnJson("meta.id", eventContext.getEventJson()));
+    }
+
+    @Test
+    public void testRuleResultIsRemembered() {
+        JmesPathInterface jmesPathInterface = Mockito.mock(JmesPathInterface.class);
+        when(jmesPathInterface.runRuleOnJson(eq("meta.id"), any(JsonNode.class))).thenReturn(new TextNode("e1"));
+        EventContext eventContext = EventContext.fromString("{\"meta\":{\"id\":\"e1\"}}");
+
+        JsonNode first = eventContext.runRule("meta.id", jmesPathInterface);
+        JsonNode second = eventContext.runRule("meta.id", jmesPathInterface);
+
+        assertSame(first, second);
+        verify(jmesPathInterface, times(1)).runRuleOnJson(eq("meta.id"), any(JsonNode.class));
+    }
+}
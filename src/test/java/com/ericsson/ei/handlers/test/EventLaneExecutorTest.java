@@ -0,0 +1,130 @@
+/*
+   Copyright 2026 Ericsson AB.
+   For a full list of individual contributors, please see the commit history.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.ericsson.ei.handlers.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.task.TaskRejectedException;
+
+import com.ericsson.ei.handlers.EventLaneExecutor;
+
+public class EventLaneExecutorTest {
+
+    private EventLaneExecutor executor;
+
+    @Before
+    public void setUp() {
+        executor = new EventLaneExecutor();
+        executor.setLanes(4);
+        executor.setQueueCapacity(100);
+        executor.init();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void testDisabledWithoutLanes() {
+        EventLaneExecutor disabled = new EventLaneExecutor();
+        disabled.init();
+        assertFalse(disabled.isEnabled());
+        assertTrue(executor.isEnabled());
+    }
+
+    @Test
+    public void testSameKeyRunsInOrder() throws Exception {
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(50);
+        for (int i = 0; i < 50; i++) {
+            final int index = i;
+            executor.execute("aggregation", () -> {
+                order.add(index);
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < 50; i++) {
+            assertEquals(i, (int) order.get(i));
+        }
+    }
+
+    @Test(expected = TaskRejectedException.class)
+    public void testFullLaneRejectsTask() throws Exception {
+        EventLaneExecutor small = new EventLaneExecutor();
+        small.setLanes(1);
+        small.setQueueCapacity(1);
+        small.init();
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            Runnable blocked = () -> {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            };
+            // One task running, one queued, the third does not fit
+            small.execute("key", blocked);
+            small.execute("key", blocked);
+            small.execute("key", blocked);
+        } finally {
+            release.countDown();
+            small.shutdown();
+        }
+    }
+
+    @Test
+    public void testOtherLanesAreNotBlocked() throws Exception {
+        String blockedKey = "first";
+        String otherKey = findKeyInOtherLane(blockedKey);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch otherDone = new CountDownLatch(1);
+        executor.execute(blockedKey, () -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        executor.execute(otherKey, otherDone::countDown);
+        assertTrue(otherDone.await(10, TimeUnit.SECONDS));
+        release.countDown();
+    }
+
+    private String findKeyInOtherLane(String key) {
+        int lane = executor.getLane(key);
+        for (int i = 0;; i++) {
+            String candidate = "key-" + i;
+            if (executor.getLane(candidate) != lane) {
+                return candidate;
+            }
+        }
+    }
+}
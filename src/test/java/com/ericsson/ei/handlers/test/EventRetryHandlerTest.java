@@ -0,0 +1,102 @@
+/*
+   Copyright 2026 Ericsson AB.
+   For a full list of individual contributors, please see the commit history.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.ericsson.ei.handlers.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import com.ericsson.ei.handlers.ConfirmedPublisher;
+import com.ericsson.ei.handlers.EventRetryHandler;
+import com.ericsson.ei.handlers.RMQProperties;
+import com.rabbitmq.client.Channel;
+
+public class EventRetryHandlerTest {
+
+    private static final String QUEUE_NAME = "EN1.eiffelintelligence.RetryTest.durable";
+
+    private EventRetryHandler retryHandler;
+    private RMQProperties rmqProperties;
+    private ConfirmedPublisher confirmedPublisher;
+    private Channel channel;
+
+    @Before
+    public void setUp() {
+        rmqProperties = new RMQProperties();
+        rmqProperties.setQueueDurable(true);
+        rmqProperties.setDomainId("EN1");
+        rmqProperties.setComponentName("eiffelintelligence");
+        rmqProperties.setQueueSuffix("RetryTest");
+        rmqProperties.setRetryDelays("5000, 1000");
+        rmqProperties.setRetryMaxAttempts(3);
+        confirmedPublisher = mock(ConfirmedPublisher.class);
+        channel = mock(Channel.class);
+
+        retryHandler = new EventRetryHandler();
+        retryHandler.setRmqProperties(rmqProperties);
+        retryHandler.setConfirmedPublisher(confirmedPublisher);
+    }
+
+    @Test
+    public void testAttemptsUseLongerDelaysAndThenParking() {
+        assertEquals(QUEUE_NAME + ".retry.1000", retryAndGetQueue(null));
+        assertEquals(QUEUE_NAME + ".retry.5000", retryAndGetQueue(1));
+        assertEquals(QUEUE_NAME + ".retry.5000", retryAndGetQueue(2));
+        assertEquals(QUEUE_NAME + ".parking", retryAndGetQueue(3));
+    }
+
+    @Test
+    public void testRetriesForeverWithoutMaxAttempts() {
+        rmqProperties.setRetryMaxAttempts(0);
+        assertEquals(QUEUE_NAME + ".retry.5000", retryAndGetQueue(100));
+    }
+
+    @Test
+    public void testDisabledWithoutDelays() {
+        rmqProperties.setRetryDelays("");
+        assertFalse(retryHandler.isEnabled());
+    }
+
+    private String retryAndGetQueue(Integer retryCount) {
+        Message message = createMessage(retryCount, 1);
+        retryHandler.retry(message, channel);
+        ArgumentCaptor<String> queue = ArgumentCaptor.forClass(String.class);
+        verify(confirmedPublisher).publishCopy(eq(message), eq(channel), eq(""), queue.capture());
+        int expectedCount = retryCount == null ? 1 : retryCount + 1;
+        assertEquals(expectedCount, (int) message.getMessageProperties().getHeader(EventRetryHandler.RETRY_COUNT_HEADER));
+        clearInvocations(confirmedPublisher);
+        return queue.getValue();
+    }
+
+    private Message createMessage(Integer retryCount, long deliveryTag) {
+        MessageProperties properties = new MessageProperties();
+        properties.setDeliveryTag(deliveryTag);
+        if (retryCount != null) {
+            properties.setHeader(EventRetryHandler.RETRY_COUNT_HEADER, retryCount);
+        }
+        return new Message("{}".getBytes(), properties);
+    }
+}
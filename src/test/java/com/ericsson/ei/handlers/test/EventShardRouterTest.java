@@ -0,0 +1,62 @@
+/*
+   Copyright 2026 Ericsson AB.
+   For a full list of individual contributors, please see the commit history.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.ericsson.ei.handlers.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import com.ericsson.ei.handlers.ConfirmedPublisher;
+import com.ericsson.ei.handlers.EventShardRouter;
+import com.ericsson.ei.handlers.RMQProperties;
+import com.rabbitmq.client.Channel;
+
+public class EventShardRouterTest {
+
+    private static final String EXCHANGE_NAME = "ShardTest-exchange";
+    private static final String SHARD_KEY = "6acc3c87-75e0-4b6d-88f5-b1a5d4e62b43";
+
+    private EventShardRouter shardRouter;
+    private ConfirmedPublisher confirmedPublisher;
+
+    @Before
+    public void setUp() {
+        RMQProperties rmqProperties = new RMQProperties();
+        rmqProperties.setExchangeName(EXCHANGE_NAME);
+        rmqProperties.setShardCount(4);
+        confirmedPublisher = mock(ConfirmedPublisher.class);
+
+        shardRouter = new EventShardRouter();
+        shardRouter.setRmqProperties(rmqProperties);
+        shardRouter.setConfirmedPublisher(confirmedPublisher);
+    }
+
+    @Test
+    public void testMessageIsPublishedWithShardKey() {
+        Channel channel = mock(Channel.class);
+        Message message = new Message("{}".getBytes(), new MessageProperties());
+        shardRouter.route(message, SHARD_KEY, channel);
+        verify(confirmedPublisher).publishCopy(message, channel, EXCHANGE_NAME + ".shards", "");
+        assertEquals(SHARD_KEY, message.getMessageProperties().getHeader(EventShardRouter.SHARD_KEY_HEADER));
+    }
+}
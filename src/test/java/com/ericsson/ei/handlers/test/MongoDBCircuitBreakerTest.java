@@ -0,0 +1,96 @@
+/*
+   Copyright 2026 Ericsson AB.
+   For a full list of individual contributors, please see the commit history.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.ericsson.ei.handlers.test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+
+import com.ericsson.ei.handlers.AckCoordinator;
+import com.ericsson.ei.handlers.MongoDBCircuitBreaker;
+import com.ericsson.ei.handlers.RMQHandler;
+import com.ericsson.ei.mongo.MongoDBHandler;
+
+public class MongoDBCircuitBreakerTest {
+
+    private MongoDBCircuitBreaker circuitBreaker;
+    private MongoDBHandler mongoDBHandler;
+    private SimpleMessageListenerContainer container;
+    private AckCoordinator ackCoordinator;
+
+    @Before
+    public void setUp() {
+        mongoDBHandler = mock(MongoDBHandler.class);
+        container = mock(SimpleMessageListenerContainer.class);
+        RMQHandler rmqHandler = mock(RMQHandler.class);
+        when(rmqHandler.getContainer()).thenReturn(container);
+
+        circuitBreaker = new MongoDBCircuitBreaker();
+        circuitBreaker.setMongoDBHandler(mongoDBHandler);
+        circuitBreaker.setRmqHandler(rmqHandler);
+        ackCoordinator = mock(AckCoordinator.class);
+        circuitBreaker.setAckCoordinator(ackCoordinator);
+        circuitBreaker.setLifecycleExecutor(Runnable::run);
+    }
+
+    @Test
+    public void testOpenStopsContainerOnce() {
+        circuitBreaker.open();
+        circuitBreaker.open();
+        assertTrue(circuitBreaker.isOpen());
+        verify(container, times(1)).stop();
+    }
+
+    @Test
+    public void testOpenFlushesAcknowledgementsBeforeStopping() {
+        circuitBreaker.open();
+        InOrder inOrder = inOrder(ackCoordinator, container);
+        inOrder.verify(ackCoordinator).flushAll();
+        inOrder.verify(container).stop();
+    }
+
+    @Test
+    public void testProbeResumesWhenMongoDBIsUp() {
+        circuitBreaker.open();
+        when(mongoDBHandler.isMongoDBServerUp()).thenReturn(false);
+        circuitBreaker.probe();
+        assertTrue(circuitBreaker.isOpen());
+        verify(container, never()).start();
+
+        when(mongoDBHandler.isMongoDBServerUp()).thenReturn(true);
+        circuitBreaker.probe();
+        assertFalse(circuitBreaker.isOpen());
+        verify(container, times(1)).start();
+    }
+
+    @Test
+    public void testProbeDoesNothingWhenClosed() {
+        circuitBreaker.probe();
+        verify(mongoDBHandler, never()).isMongoDBServerUp();
+        verify(container, never()).start();
+    }
+}
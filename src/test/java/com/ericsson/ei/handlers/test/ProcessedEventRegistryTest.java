@@ -0,0 +1,98 @@
+/*
+   Copyright 2026 Ericsson AB.
+   For a full list of individual contributors, please see the commit history.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.ericsson.ei.handlers.test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ericsson.ei.handlers.ProcessedEventRegistry;
+import com.ericsson.ei.mongo.BulkWriteBuffer;
+import com.ericsson.ei.mongo.MongoDBHandler;
+import com.ericsson.ei.mongo.MongoQuery;
+import com.ericsson.ei.mongo.MongoWorkload;
+
+public class ProcessedEventRegistryTest {
+
+    private static final String DATABASE = "ProcessedEventRegistryTest";
+    private static final String COLLECTION = "processed_events";
+    private static final String EVENT_ID = "e90daae3-bf3f-4b0a-b899-67834fd5ebd0";
+
+    private ProcessedEventRegistry registry;
+    private MongoDBHandler mongoDBHandler;
+    private BulkWriteBuffer bulkWriteBuffer;
+
+    @Before
+    public void setUp() {
+        mongoDBHandler = mock(MongoDBHandler.class);
+        bulkWriteBuffer = mock(BulkWriteBuffer.class);
+        registry = new ProcessedEventRegistry();
+        registry.setEnabled(true);
+        registry.setCollectionName(COLLECTION);
+        registry.setDatabaseName(DATABASE);
+        registry.setCacheSize(2);
+        registry.setMongoDBHandler(mongoDBHandler);
+        registry.setBulkWriteBuffer(bulkWriteBuffer);
+        registry.init();
+    }
+
+    @Test
+    public void testProcessedEventIsFoundInMemory() {
+        assertFalse(registry.isProcessed(EVENT_ID, false));
+        registry.markProcessed(EVENT_ID);
+        registry.markProcessed(EVENT_ID);
+        assertTrue(registry.isProcessed(EVENT_ID, true));
+
+        verify(bulkWriteBuffer, times(1)).addUntracked(eq(MongoWorkload.RELAXED_WRITE), eq(DATABASE),
+                eq(COLLECTION), any());
+        verify(mongoDBHandler, never()).exists(any(), any(), any(MongoQuery.class));
+    }
+
+    @Test
+    public void testOnlyRedeliveredEventsAreLookedUp() {
+        when(mongoDBHandler.exists(eq(DATABASE), eq(COLLECTION), any(MongoQuery.class))).thenReturn(true);
+        assertFalse(registry.isProcessed(EVENT_ID, false));
+        assertTrue(registry.isProcessed(EVENT_ID, true));
+        verify(mongoDBHandler, times(1)).exists(eq(DATABASE), eq(COLLECTION), any(MongoQuery.class));
+    }
+
+    @Test
+    public void testOldestIdsAreEvicted() {
+        registry.markProcessed("first");
+        registry.markProcessed("second");
+        registry.markProcessed("third");
+        assertFalse(registry.isProcessed("first", false));
+        assertTrue(registry.isProcessed("third", false));
+    }
+
+    @Test
+    public void testDisabledRegistryDoesNothing() {
+        registry.setEnabled(false);
+        registry.markProcessed(EVENT_ID);
+        assertFalse(registry.isProcessed(EVENT_ID, true));
+        verify(bulkWriteBuffer, never()).addUntracked(any(), any(), any(), any());
+    }
+}
@@ -20,6 +20,8 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 
+import java.util.Arrays;
+
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -100,4 +102,26 @@ public class RmqPropertiesTest {
         assertThat(rmqProperties.getWaitlistQueueName(), is(equalTo(waitlistQueueName)));
     }
 
+    @Test
+    public void isBoundedIngestionTest() {
+        assertThat(rmqProperties.isBoundedIngestion(), is(false));
+        rmqProperties.setIngestionMode("bounded");
+        assertThat(rmqProperties.isBoundedIngestion(), is(true));
+        rmqProperties.setIngestionMode("async");
+    }
+
+    @Test
+    public void getClaimedShardListTest() {
+        assertThat(rmqProperties.isSharded(), is(false));
+        assertThat(rmqProperties.getClaimedShardList().isEmpty(), is(true));
+        rmqProperties.setShardCount(3);
+        assertThat(rmqProperties.getClaimedShardList(), is(equalTo(Arrays.asList(0, 1, 2))));
+        rmqProperties.setClaimedShards("2, 0");
+        assertThat(rmqProperties.getClaimedShardList(), is(equalTo(Arrays.asList(2, 0))));
+        assertThat(rmqProperties.isShardQueue(rmqProperties.getShardQueueName(2)), is(true));
+        assertThat(rmqProperties.isShardQueue(queueName), is(false));
+        rmqProperties.setClaimedShards("");
+        rmqProperties.setShardCount(0);
+    }
+
 }
@@ -0,0 +1,81 @@
+/*
+   Copyright 2026 Ericsson AB.
+   For a full list of individual contributors, please see the commit history.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package com.ericsson.ei.jmespath.test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+
+import com.ericsson.ei.jmespath.SimpleExpressionCompiler;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.jackson.JacksonRuntime;
+
+/**
+ * Compares the time to evaluate the common rule expressions with the JMESPath
+ * interpreter and with {@link SimpleExpressionCompiler}. This is not a unit
+ * test and is excluded from the surefire runs. Run it from the root of the
+ * project with the test classpath:
+ *
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+ * java -cp target/test-classes:target/classes:$(cat target/classpath.txt) \
+ *     com.ericsson.ei.jmespath.test.SimpleExpressionBenchmark [iterations]
+ * </pre>
+ */
+public class SimpleExpressionBenchmark {
+
+    private static final String EVENT_PATH = "src/test/resources/EiffelArtifactCreatedEvent.json";
+    private static final List<String> EXPRESSIONS = Arrays.asList("meta.id", "meta.type", "data.identity",
+            "[meta.id]", "links | [?type=='CAUSE'].target");
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        JsonNode event = new ObjectMapper().readTree(FileUtils.readFileToString(new File(EVENT_PATH), "UTF-8"));
+        JacksonRuntime runtime = new JacksonRuntime();
+
+        System.out.printf("%-34s %14s %14s %8s%n", "expression", "interpreter ns", "fast path ns", "speedup");
+        for (String expression : EXPRESSIONS) {
+            Expression<JsonNode> interpreted = runtime.compile(expression);
+            Expression<JsonNode> fastPath = SimpleExpressionCompiler.compile(expression);
+            // warm up both before measuring
+            measure(interpreted, event, iterations);
+            measure(fastPath, event, iterations);
+            double interpreterNanos = measure(interpreted, event, iterations);
+            double fastPathNanos = measure(fastPath, event, iterations);
+            System.out.printf("%-34s %14.1f %14.1f %7.1fx%n", expression, interpreterNanos, fastPathNanos,
+                    interpreterNanos / fastPathNanos);
+        }
+    }
+
+    private static double measure(Expression<JsonNode> expression, JsonNode event, int iterations) {
+        int sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += expression.search(event).size();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (sink == 42) {
+            System.out.print("");
+        }
+        return (double) elapsed / iterations;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+   Copyright 2026 Ericsson AB.
+   For a full list of individual contributors, please see the commit history.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package com.ericsson.ei.jmespath.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import com.ericsson.ei.jmespath.CompiledExpressionCache;
+import com.ericsson.ei.jmespath.JmesPathInterface;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.jackson.JacksonRuntime;
+
+public class TestCompiledExpressionCache {
+
+    private static final String EVENT = "{\"meta\":{\"id\":\"e1\",\"type\":\"EiffelArtifactCreatedEvent\"}}";
+
+    private final JacksonRuntime runtime = new JacksonRuntime();
+
+    @Test
+    public void testCompiledExpressionIsReused() {
+        CompiledExpressionCache<JsonNode> cache = new CompiledExpressionCache<>(10);
+
+        Expression<JsonNode> first = cache.get("meta.id", runtime::compile);
+        Expression<JsonNode> second = cache.get("meta.id", runtime::compile);
+
+        assertSame(first, second);
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getSize());
+    }
+
+    @Test
+    public void testCacheIsBounded() {
+        CompiledExpressionCache<JsonNode> cache = new CompiledExpressionCache<>(3);
+        cache.get("meta.id", runtime::compile);
+
+        for (int i = 0; i < 10; i++) {
+            cache.get("meta.id", runtime::compile);
+            cache.get("data.value" + i, runtime::compile);
+        }
+
+        assertEquals(3, cache.getSize());
+        assertEquals(8, cache.getEvictionCount());
+        long hits = cache.getHitCount();
+        cache.get("meta.id", runtime::compile);
+        assertEquals("Frequently used expression should survive eviction", hits + 1, cache.getHitCount());
+    }
+
+    @Test
+    public void testInvalidExpressionIsNotCached() {
+        CompiledExpressionCache<JsonNode> cache = new CompiledExpressionCache<>(10);
+        try {
+            cache.get("meta.[", runtime::compile);
+            fail("Expected the invalid expression to fail compilation");
+        } catch (RuntimeException e) {
+            assertEquals(0, cache.getSize());
+        }
+    }
+
+    @Test
+    public void testRunRuleOnEventUsesCache() {
+        JmesPathInterface jmesPathInterface = new JmesPathInterface(16);
+
+        JsonNode first = jmesPathInterface.runRuleOnEvent("meta.id", EVENT);
+        JsonNode second = jmesPathInterface.runRuleOnEvent("meta.id", EVENT);
+
+        assertEquals("e1", first.asText());
+        assertEquals(first, second);
+        assertEquals(1, jmesPathInterface.getExpressionCache().getMissCount());
+        assertTrue(jmesPathInterface.getExpressionCache().getHitCount() >= 1);
+    }
+}
@@ -84,4 +84,17 @@ public class TestIncompleteJmesPathFilter {
         JsonNode result = unitUnderTest.runRuleOnEvent(processRule, jsonInput);
         assertEquals(expectedResult, result.toString());
     }
+
+    @Test
+    public void testFilterSameObjectWithDifferentKeys() throws Exception {
+        String expectedTime = "\"[5005, 1481875921843, 1481875988767, 2000, 1481875921763, 1481875944272, 1481875891763]\"";
+        String expectedEventId = "\"33d05e6f-9bd9-4138-83b6-e20cc74680a3\"";
+        JsonNode aggregatedObject = mapper.readTree(jsonInput);
+        assertEquals(expectedTime,
+                unitUnderTest.runRuleOnJson("incomplete_path_filter(@, 'time')", aggregatedObject).toString());
+        assertEquals(expectedEventId, unitUnderTest
+                .runRuleOnJson("incomplete_path_filter(@, 'publications[0].eventId')", aggregatedObject).toString());
+        assertEquals(expectedTime,
+                unitUnderTest.runRuleOnJson("incomplete_path_filter(@, 'time')", aggregatedObject).toString());
+    }
 }
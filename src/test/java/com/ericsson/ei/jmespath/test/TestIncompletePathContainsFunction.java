@@ -10,6 +10,7 @@ import org.junit.Test;
 
 import com.ericsson.ei.jmespath.JmesPathInterface;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 
 public class TestIncompletePathContainsFunction {
@@ -54,4 +55,35 @@ public class TestIncompletePathContainsFunction {
         JsonNode result = unitUnderTest.runRuleOnEvent(processRule, jsonInput);
         assertEquals(expectedResult, result);
     }
+
+    @Test
+    public void testIncompletePathContainsFunctionOnSameObject() throws Exception {
+        JsonNode object = new ObjectMapper().readTree(jsonInput);
+        assertEquals(JsonNodeFactory.instance.booleanNode(false), unitUnderTest
+                .runRuleOnJson("incomplete_path_contains(@, 'testCase.StartedTime','3.56')", object));
+        assertEquals(JsonNodeFactory.instance.booleanNode(true), unitUnderTest
+                .runRuleOnJson("incomplete_path_contains(@, 'testCaseStartedTime','3.56')", object));
+        assertEquals(JsonNodeFactory.instance.booleanNode(true), unitUnderTest
+                .runRuleOnJson("incomplete_path_contains(@, 'fileInformation.extension','jar')", object));
+    }
+
+    @Test
+    public void testIncompletePathContainsFunctionWithDottedKey() throws Exception {
+        JsonNode object = new ObjectMapper().readTree("{\"a\":{\"b.c\":{\"d\":\"x\"}}}");
+        assertEquals(JsonNodeFactory.instance.booleanNode(true),
+                unitUnderTest.runRuleOnJson("incomplete_path_contains(@, 'a.d','x')", object));
+        assertEquals(JsonNodeFactory.instance.booleanNode(false),
+                unitUnderTest.runRuleOnJson("incomplete_path_contains(@, 'a.d','y')", object));
+    }
+
+    @Test
+    public void testIncompletePathContainsFunctionWithMissingPart() throws Exception {
+        JsonNode object = new ObjectMapper().readTree("{\"a\":{\"c\":\"x\"},\"time\":\"x\"}");
+        assertEquals(JsonNodeFactory.instance.booleanNode(false),
+                unitUnderTest.runRuleOnJson("incomplete_path_contains(@, 'b.c','x')", object));
+        assertEquals(JsonNodeFactory.instance.booleanNode(false),
+                unitUnderTest.runRuleOnJson("incomplete_path_contains(@, 'a.b','x')", object));
+        assertEquals(JsonNodeFactory.instance.booleanNode(true),
+                unitUnderTest.runRuleOnJson("incomplete_path_contains(@, 'a.c','x')", object));
+    }
 }
@@ -0,0 +1,92 @@
+/*
+   Copyright 2026 Ericsson AB.
+   For a full list of individual contributors, please see the commit history.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package com.ericsson.ei.jmespath.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.ericsson.ei.jmespath.SimpleExpressionCompiler;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.jackson.JacksonRuntime;
+
+public class TestSimpleExpressionCompiler {
+
+    private static final String EVENTS_PATH = "src/test/resources/AggregateListEvents.json";
+
+    private static final List<String> SIMPLE_EXPRESSIONS = Arrays.asList(
+            "@", "meta.id", "meta.type", "data.identity", "meta . source . name", "meta.id.missing",
+            "missing", "missing.field", "links", "data.gav.groupId",
+            "[meta.id]", "[meta.id, meta.type, missing]",
+            "links | [?type=='CAUSE'].target", "links[?type=='CAUSE'].target",
+            "links | [?type=='ARTIFACT'].target", "links | [?type=='CONTEXT']",
+            "links | [?type=='CAUSE'].missing", "links | [?missing=='CAUSE'].target",
+            "data | [?type=='CAUSE'].target", "missing[?type=='CAUSE'].target",
+            "data.customData[?key=='name'].value");
+
+    private static final List<String> OTHER_EXPRESSIONS = Arrays.asList(
+            "links | [?type=='CAUSE'] | [0].target", "{id: meta.id}", "meta.\"id\"", "links[0].target",
+            "links[?type=='CAUSE'].target | [0]", "`\"true\"`", "meta.id == 'x'");
+
+    private static final JacksonRuntime RUNTIME = new JacksonRuntime();
+    private static final List<JsonNode> INPUTS = new ArrayList<>();
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        for (JsonNode event : mapper.readTree(FileUtils.readFileToString(new File(EVENTS_PATH), "UTF-8"))) {
+            INPUTS.add(event);
+        }
+        INPUTS.add(mapper.readTree("{\"meta\":null,\"links\":{\"type\":\"CAUSE\"},\"data\":[1,null,{}]}"));
+        INPUTS.add(mapper.readTree("{\"meta\":{\"id\":[1,2]},\"links\":[null,1,\"CAUSE\",{\"type\":1},"
+                + "{\"type\":\"CAUSE\"},{\"type\":\"CAUSE\",\"target\":null},{\"type\":\"CAUSE\",\"target\":\"t\"}]}"));
+        INPUTS.add(mapper.readTree("[{\"meta\":{\"id\":\"a\"}}]"));
+        INPUTS.add(mapper.readTree("\"text\""));
+        INPUTS.add(mapper.readTree("null"));
+    }
+
+    @Test
+    public void testSimpleExpressionsGiveSameResultAsInterpreter() {
+        for (String expression : SIMPLE_EXPRESSIONS) {
+            Expression<JsonNode> fastPath = SimpleExpressionCompiler.compile(expression);
+            assertNotNull("Expected a fast path for " + expression, fastPath);
+            Expression<JsonNode> interpreted = RUNTIME.compile(expression);
+            for (JsonNode input : INPUTS) {
+                assertEquals(expression + " on " + input, interpreted.search(input), fastPath.search(input));
+            }
+        }
+    }
+
+    @Test
+    public void testOtherExpressionsAreLeftToInterpreter() {
+        for (String expression : OTHER_EXPRESSIONS) {
+            assertNull(expression, SimpleExpressionCompiler.compile(expression));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+   Copyright 2026 Ericsson AB.
+   For a full list of individual contributors, please see the commit history.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.ericsson.ei.mongo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AsyncMongoDBHandlerTest {
+
+    private AsyncMongoDBHandler asyncMongoDBHandler;
+
+    @Before
+    public void setUp() {
+        asyncMongoDBHandler = new AsyncMongoDBHandler();
+        asyncMongoDBHandler.setQueueCapacity(10);
+    }
+
+    @After
+    public void tearDown() {
+        asyncMongoDBHandler.shutdown();
+    }
+
+    @Test
+    public void testOperationsRunInCallingThreadWhenDisabled() {
+        asyncMongoDBHandler.init();
+        assertFalse(asyncMongoDBHandler.isEnabled());
+        Thread caller = Thread.currentThread();
+        CompletableFuture<Thread> future = asyncMongoDBHandler.submit(Thread::currentThread);
+        assertTrue(future.isDone());
+        assertEquals(caller, future.join());
+    }
+
+    @Test
+    public void testOperationsRunInBackground() {
+        asyncMongoDBHandler.setPoolSize(2);
+        asyncMongoDBHandler.init();
+        assertTrue(asyncMongoDBHandler.isEnabled());
+        assertTrue(asyncMongoDBHandler.submit(() -> true).join());
+        assertNotEquals(Thread.currentThread(),
+                asyncMongoDBHandler.submit(Thread::currentThread).join());
+    }
+
+    @Test(expected = CompletionException.class)
+    public void testFailureCompletesFutureExceptionally() {
+        asyncMongoDBHandler.init();
+        CompletableFuture<Long> future = asyncMongoDBHandler.submit(() -> {
+            throw new IllegalStateException("down");
+        });
+        assertTrue(future.isCompletedExceptionally());
+        future.join();
+    }
+}
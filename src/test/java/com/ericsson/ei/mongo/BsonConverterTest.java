@@ -0,0 +1,76 @@
+/*
+   Copyright 2026 Ericsson AB.
+   For a full list of individual contributors, please see the commit history.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.ericsson.ei.mongo;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.util.Date;
+
+import org.apache.commons.io.FileUtils;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.mongodb.BasicDBObject;
+
+public class BsonConverterTest {
+
+    private static final String EVENT_PATH = "src/test/resources/EiffelArtifactCreatedEvent.json";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Test
+    public void testEventGivesSameDocumentAsParsing() throws Exception {
+        String event = FileUtils.readFileToString(new File(EVENT_PATH), "UTF-8");
+        assertEquals(Document.parse(event), BsonConverter.toDocument(OBJECT_MAPPER.readTree(event)));
+    }
+
+    @Test
+    public void testValueTypesAreSameAsParsing() throws Exception {
+        String json = "{\"int\": 1, \"long\": 9876543210, \"double\": 1.5, \"bool\": true, \"none\": null,"
+                + " \"list\": [1, \"a\", {\"b\": false}], \"nested\": {\"c\": -2}}";
+        assertEquals(Document.parse(json), BsonConverter.toDocument(OBJECT_MAPPER.readTree(json)));
+    }
+
+    @Test
+    public void testExtendedJsonIsKept() throws Exception {
+        String json = "{\"time\": {\"$date\": 1500000000000}, \"count\": {\"$numberLong\": \"5\"}}";
+        assertEquals(Document.parse(json), BsonConverter.toDocument(OBJECT_MAPPER.readTree(json)));
+    }
+
+    @Test
+    public void testDocumentGivesSameTreeAsWritingIt() throws Exception {
+        Document document = Document.parse(FileUtils.readFileToString(new File(EVENT_PATH), "UTF-8"));
+        document.put("_id", new ObjectId());
+        document.put("Time", new Date(1500000000000L));
+        document.put("small", 5L);
+        document.put("large", 9876543210L);
+        document.put("ratio", 0.25);
+        document.put("none", null);
+
+        JsonNode expected = OBJECT_MAPPER.readTree(new BasicDBObject(document).toString());
+        assertEquals(expected, BsonConverter.toJsonNode(document));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOnlyObjectsAreConverted() {
+        BsonConverter.toDocument(new TextNode("text"));
+    }
+}
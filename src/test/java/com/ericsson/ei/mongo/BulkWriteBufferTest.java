@@ -0,0 +1,150 @@
+/*
+   Copyright 2026 Ericsson AB.
+   For a full list of individual contributors, please see the commit history.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.ericsson.ei.mongo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.ericsson.ei.mongo.BulkWriteBuffer.PendingWrites;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.WriteModel;
+
+public class BulkWriteBufferTest {
+
+    private static final String DATABASE = "BulkWriteBufferTest";
+    private static final String COLLECTION = "event_object_map";
+
+    private BulkWriteBuffer bulkWriteBuffer;
+    private MongoDBHandler mongoDBHandler;
+
+    @Before
+    public void setUp() {
+        mongoDBHandler = mock(MongoDBHandler.class);
+        bulkWriteBuffer = new BulkWriteBuffer();
+        bulkWriteBuffer.setMongoDBHandler(mongoDBHandler);
+        bulkWriteBuffer.setBatchSize(3);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testWritesAreSentWhenBatchIsFull() {
+        CompletableFuture<Void> first = bulkWriteBuffer.add(DATABASE, COLLECTION, insert("1"));
+        bulkWriteBuffer.add(DATABASE, COLLECTION, insert("2"));
+        verify(mongoDBHandler, never()).bulkWrite(any(), any(), anyList());
+        assertFalse(first.isDone());
+
+        bulkWriteBuffer.add(DATABASE, COLLECTION, insert("3"));
+        ArgumentCaptor<List<WriteModel<Document>>> writes = ArgumentCaptor.forClass(List.class);
+        verify(mongoDBHandler).bulkWrite(eq(DATABASE), eq(COLLECTION), writes.capture());
+        assertEquals(3, writes.getValue().size());
+        assertTrue(first.isDone());
+        assertFalse(first.isCompletedExceptionally());
+    }
+
+    @Test
+    public void testTrackedWritesAreAcknowledgedByFlush() {
+        PendingWrites pendingWrites = bulkWriteBuffer.startTracking();
+        bulkWriteBuffer.add(DATABASE, COLLECTION, insert("1"));
+        bulkWriteBuffer.stopTracking();
+        bulkWriteBuffer.add(DATABASE, COLLECTION, insert("untracked"));
+
+        CompletableFuture<Void> acknowledged = pendingWrites.whenAcknowledged();
+        assertFalse(acknowledged.isDone());
+        bulkWriteBuffer.flushAll();
+        assertTrue(acknowledged.isDone());
+        assertFalse(acknowledged.isCompletedExceptionally());
+        assertTrue(bulkWriteBuffer.startTracking().whenAcknowledged().isDone());
+    }
+
+    @Test
+    public void testUntrackedWritesAreNotTracked() {
+        PendingWrites pendingWrites = bulkWriteBuffer.startTracking();
+        CompletableFuture<Void> write = bulkWriteBuffer.addUntracked(MongoWorkload.RELAXED_WRITE, DATABASE,
+                COLLECTION, insert("1"));
+        bulkWriteBuffer.stopTracking();
+        assertFalse(write.isDone());
+        assertTrue(pendingWrites.whenAcknowledged().isDone());
+    }
+
+    @Test
+    public void testOnlyFailedWritesAreFailed() {
+        BulkWriteError error = new BulkWriteError(11000, "duplicate key", new BsonDocument(), 1);
+        MongoBulkWriteException exception = new MongoBulkWriteException(
+                BulkWriteResult.acknowledged(2, 0, 0, 0, Collections.emptyList(), Collections.emptyList()),
+                Collections.singletonList(error), null, new ServerAddress(), new HashSet<>());
+        when(mongoDBHandler.bulkWrite(any(), any(), anyList())).thenThrow(exception);
+
+        CompletableFuture<Void> first = bulkWriteBuffer.add(DATABASE, COLLECTION, insert("1"));
+        CompletableFuture<Void> second = bulkWriteBuffer.add(DATABASE, COLLECTION, insert("2"));
+        bulkWriteBuffer.flushAll();
+        assertFalse(first.isCompletedExceptionally());
+        assertTrue(second.isCompletedExceptionally());
+    }
+
+    @Test
+    public void testBatchSizeOneWritesAtOnce() {
+        bulkWriteBuffer.setBatchSize(1);
+        assertTrue(bulkWriteBuffer.add(DATABASE, COLLECTION, insert("1")).isDone());
+        verify(mongoDBHandler).bulkWrite(eq(DATABASE), eq(COLLECTION), anyList());
+    }
+
+    @Test
+    public void testBatchSizeOneWritesInBackground() {
+        AsyncMongoDBHandler asyncMongoDBHandler = new AsyncMongoDBHandler();
+        asyncMongoDBHandler.setPoolSize(1);
+        asyncMongoDBHandler.setQueueCapacity(10);
+        asyncMongoDBHandler.init();
+        try {
+            bulkWriteBuffer.setAsyncMongoDBHandler(asyncMongoDBHandler);
+            bulkWriteBuffer.setBatchSize(1);
+            PendingWrites writes = bulkWriteBuffer.startTracking();
+            bulkWriteBuffer.add(DATABASE, COLLECTION, insert("1"));
+            bulkWriteBuffer.stopTracking();
+            writes.whenAcknowledged().join();
+            verify(mongoDBHandler).bulkWrite(eq(DATABASE), eq(COLLECTION), anyList());
+        } finally {
+            asyncMongoDBHandler.shutdown();
+        }
+    }
+
+    private WriteModel<Document> insert(String id) {
+        return new InsertOneModel<>(new Document(MongoConstants.ID, id));
+    }
+}
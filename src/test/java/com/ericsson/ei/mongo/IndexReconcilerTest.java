@@ -0,0 +1,103 @@
+/*
+   Copyright 2026 Ericsson AB.
+   For a full list of individual contributors, please see the commit history.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.ericsson.ei.mongo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ericsson.ei.exception.MongoDBConnectionException;
+import com.ericsson.ei.rules.RulesHandler;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class IndexReconcilerTest {
+
+    private static final String DATABASE = "IndexReconcilerTest";
+    private static final String RULES = "["
+            + "{\"TemplateName\": \"TEMPLATE_1\", \"MatchIdRules\": {\"_id\": \"%IdentifyRulesEventId%\"}},"
+            + "{\"TemplateName\": \"TEMPLATE_1\", \"MatchIdRules\": {\"$and\": ["
+            + "{\"causedActivities.triggeredEventId\": \"%IdentifyRulesEventId%\"},"
+            + "{\"causedActivities.startedEventId\": {\"$exists\": \"true\"}}]}},"
+            + "{\"TemplateName\": \"TEMPLATE_2\", \"MatchIdRules\": \"{\\\"$or\\\": "
+            + "[{\\\"causedActivities.triggeredEventId\\\": \\\"%IdentifyRulesEventId%\\\"}]}\"},"
+            + "{\"TemplateName\": \"TEMPLATE_2\", \"MatchIdRules\": {}}]";
+
+    private IndexReconciler indexReconciler;
+    private MongoDBHandler mongoDBHandler;
+
+    @Before
+    public void setUp() throws Exception {
+        mongoDBHandler = mock(MongoDBHandler.class);
+        RulesHandler rulesHandler = mock(RulesHandler.class);
+        JsonNode rules = new ObjectMapper().readTree(RULES);
+        when(rulesHandler.getRulesContent()).thenReturn(rules);
+
+        indexReconciler = new IndexReconciler();
+        indexReconciler.setEnabled(true);
+        indexReconciler.setDatabaseName(DATABASE);
+        indexReconciler.setAggregationsCollectionName("aggregations");
+        indexReconciler.setEventObjectMapCollectionName("event_object_map");
+        indexReconciler.setSubscriptionsCollectionName("subscriptions");
+        indexReconciler.setSubscriptionsRepeatHandlerCollectionName("subscriptions_repeat_handler");
+        indexReconciler.setFailedNotificationsCollectionName("failed_notifications");
+        indexReconciler.setMongoDBHandler(mongoDBHandler);
+        indexReconciler.setRulesHandler(rulesHandler);
+    }
+
+    @Test
+    public void testRequiredIndexesAreCreated() throws Exception {
+        doThrow(new MongoDBConnectionException("down")).when(mongoDBHandler)
+                .createIndex(DATABASE, "subscriptions", "subscriptionName");
+        indexReconciler.init();
+        verify(mongoDBHandler).createIndex(DATABASE, "event_object_map", "objects");
+        verify(mongoDBHandler).createIndex(DATABASE, "subscriptions_repeat_handler", "subscriptionId");
+        verify(mongoDBHandler).createIndex(DATABASE, "failed_notifications", "subscriptionName");
+    }
+
+    @Test
+    public void testCandidatesAreDerivedFromMatchIdRules() {
+        Map<String, Set<String>> candidates = indexReconciler.getCandidateIndexes();
+        assertEquals(2, candidates.size());
+        assertEquals(Set.of("TEMPLATE_1", "TEMPLATE_2"), candidates.get("causedActivities.triggeredEventId"));
+        assertEquals(Set.of("TEMPLATE_1"), candidates.get("causedActivities.startedEventId"));
+    }
+
+    @Test
+    public void testReportShowsExistingIndexes() throws Exception {
+        when(mongoDBHandler.getIndexedFields(eq(DATABASE), anyString())).thenReturn(Collections.emptySet());
+        when(mongoDBHandler.getIndexedFields(DATABASE, "event_object_map")).thenReturn(Set.of("_id", "objects"));
+        JsonNode report = indexReconciler.getIndexReport();
+        assertEquals(4, report.get("required").size());
+        assertTrue(report.get("required").get(0).get("exists").booleanValue());
+        assertFalse(report.get("required").get(1).get("exists").booleanValue());
+        assertEquals("aggregations", report.get("candidates").get(0).get("collection").textValue());
+    }
+}
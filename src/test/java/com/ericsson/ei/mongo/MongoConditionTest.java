@@ -4,6 +4,7 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 
+import org.bson.Document;
 import org.json.JSONObject;
 import org.junit.Test;
 
@@ -100,6 +101,18 @@ public class MongoConditionTest {
         assertThat(actual, is(equalTo(expect)));
     }
 
+    @Test
+    public void testConditionAsDocumentIsSameAsParsed() {
+        MongoCondition idCondition = MongoCondition.idCondition("id-as-string");
+        MongoCondition lockNullCondition = MongoCondition.lockNullCondition();
+        MongoCondition emptyCondition = MongoCondition.emptyCondition();
+
+        assertThat(idCondition.getQueryDocument(), is(equalTo(Document.parse(idCondition.getQueryString()))));
+        assertThat(lockNullCondition.getQueryDocument(),
+                is(equalTo(Document.parse(lockNullCondition.getQueryString()))));
+        assertThat(emptyCondition.getQueryDocument(), is(equalTo(new Document())));
+    }
+
     /**
      * Interface is only used in the package to support building queries of Mongo Conditions
      */
@@ -0,0 +1,116 @@
+/*
+   Copyright 2026 Ericsson AB.
+   For a full list of individual contributors, please see the commit history.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.ericsson.ei.mongo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.CountOptions;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.result.UpdateResult;
+
+public class MongoDBHandlerExistsTest {
+
+    private static final String DATABASE = "MongoDBHandlerExistsTest";
+    private static final String COLLECTION = "documents";
+
+    private MongoDBHandler mongoDBHandler;
+    private MongoCollection<Document> collection;
+    private FindIterable<Document> findIterable;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        MongoClient mongoClient = mock(MongoClient.class);
+        MongoDatabase database = mock(MongoDatabase.class);
+        collection = mock(MongoCollection.class);
+        findIterable = mock(FindIterable.class);
+        when(mongoClient.getDatabase(DATABASE)).thenReturn(database);
+        when(database.getCollection(COLLECTION)).thenReturn(collection);
+        when(collection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.projection(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.limit(anyInt())).thenReturn(findIterable);
+
+        mongoDBHandler = new MongoDBHandler();
+        mongoDBHandler.setMongoClient(mongoClient);
+    }
+
+    @Test
+    public void testExistsFetchesOnlyTheFirstId() {
+        when(findIterable.first()).thenReturn(new Document("_id", "first"));
+        assertTrue(mongoDBHandler.exists(DATABASE, COLLECTION, MongoCondition.lockNullCondition()));
+        verify(findIterable).projection(argThat(projection -> projection.toBsonDocument()
+                                                                        .equals(new Document("_id", 1).toBsonDocument())));
+        verify(findIterable).limit(1);
+    }
+
+    @Test
+    public void testExistsWithoutMatch() {
+        when(findIterable.first()).thenReturn(null);
+        assertFalse(mongoDBHandler.exists(DATABASE, COLLECTION, MongoBsonQuery.idQuery("missing")));
+    }
+
+    @Test
+    public void testCountUsesLimitOfQuery() {
+        when(collection.countDocuments(any(Bson.class), any(CountOptions.class))).thenReturn(3L);
+        MongoQuery query = MongoBsonQuery.of(MongoCondition.lockNullCondition()).withLimit(5);
+        assertEquals(3L, mongoDBHandler.count(DATABASE, COLLECTION, query));
+        verify(collection).countDocuments(eq(query.getQueryDocument()),
+                argThat((CountOptions options) -> options.getLimit() == 5));
+    }
+
+    @Test
+    public void testUpdateOneWithUpsert() {
+        Bson update = Updates.addToSet("requirements.0", "id");
+        when(collection.updateOne(any(Bson.class), any(Bson.class), any(UpdateOptions.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+        MongoQuery query = MongoBsonQuery.idQuery("id");
+        assertTrue(mongoDBHandler.updateOne(DATABASE, COLLECTION, query, update, true));
+        verify(collection).updateOne(eq(query.getQueryDocument()), eq(update),
+                argThat((UpdateOptions options) -> options.isUpsert()));
+    }
+
+    @Test
+    public void testQueryProjectionAndLimit() {
+        MongoBsonQuery query = MongoBsonQuery.idQuery("id");
+        assertNull(query.getProjection());
+        assertEquals(1, query.getLimit());
+        MongoBsonQuery projected = query.withProjection("objects");
+        assertEquals(new Document("objects", 1), projected.getProjection());
+        assertEquals(1, projected.getLimit());
+        assertEquals(0, MongoBsonQuery.of(MongoCondition.lockNullCondition()).getLimit());
+    }
+}
@@ -0,0 +1,91 @@
+/*
+   Copyright 2026 Ericsson AB.
+   For a full list of individual contributors, please see the commit history.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.ericsson.ei.mongo;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
+
+public class MongoDBHandlerSettingsTest {
+
+    private static final String URI = "mongodb://localhost:27017/?maxPoolSize=7";
+
+    @Test
+    public void testPropertiesOverrideConnectionString() {
+        MongoDBHandler handler = createHandler(MongoWorkload.INGESTION);
+        handler.setPoolMaxSize(250);
+        handler.setPoolMaxWaitTime(1000);
+        handler.setConnectTimeout(5000);
+        handler.setServerSelectionTimeout(3000);
+        MongoClientSettings settings = handler.createClientSettings(URI
+                + "&connectTimeoutMS=4000&serverSelectionTimeoutMS=2000&waitQueueTimeoutMS=500");
+        assertEquals(250, settings.getConnectionPoolSettings().getMaxSize());
+        assertEquals(1000, settings.getConnectionPoolSettings().getMaxWaitTime(TimeUnit.MILLISECONDS));
+        assertEquals(5000, settings.getSocketSettings().getConnectTimeout(TimeUnit.MILLISECONDS));
+        assertEquals(3000, settings.getClusterSettings().getServerSelectionTimeout(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testIngestionReadsFromPrimary() {
+        MongoDBHandler handler = createHandler(MongoWorkload.INGESTION);
+        MongoClientSettings settings = handler.createClientSettings(URI + "&readPreference=secondary");
+        assertEquals(ReadPreference.primary(), settings.getReadPreference());
+    }
+
+    @Test
+    public void testUnsetPropertiesKeepConnectionString() {
+        MongoDBHandler handler = createHandler(MongoWorkload.QUERY);
+        MongoClientSettings settings = handler.createClientSettings(URI + "&readPreference=secondary"
+                + "&connectTimeoutMS=4000&serverSelectionTimeoutMS=2000&waitQueueTimeoutMS=500");
+        assertEquals(ReadPreference.secondary(), settings.getReadPreference());
+        assertEquals(7, settings.getConnectionPoolSettings().getMaxSize());
+        assertEquals(500, settings.getConnectionPoolSettings().getMaxWaitTime(TimeUnit.MILLISECONDS));
+        assertEquals(4000, settings.getSocketSettings().getConnectTimeout(TimeUnit.MILLISECONDS));
+        assertEquals(2000, settings.getClusterSettings().getServerSelectionTimeout(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testQueryUsesReadPreferenceAndItsOwnPool() {
+        MongoDBHandler handler = createHandler(MongoWorkload.QUERY);
+        handler.setPoolMaxSize(250);
+        handler.setQueryPoolMaxSize(20);
+        handler.setQueryReadPreference("secondaryPreferred");
+        MongoClientSettings settings = handler.createClientSettings(URI);
+        assertEquals(ReadPreference.secondaryPreferred(), settings.getReadPreference());
+        assertEquals(20, settings.getConnectionPoolSettings().getMaxSize());
+    }
+
+    @Test
+    public void testRelaxedWriteConcern() {
+        MongoDBHandler handler = createHandler(MongoWorkload.RELAXED_WRITE);
+        handler.setRelaxedWriteConcern("w1");
+        MongoClientSettings settings = handler.createClientSettings(URI);
+        assertEquals(WriteConcern.W1, settings.getWriteConcern());
+        // The connection string is used when no size is given
+        assertEquals(7, settings.getConnectionPoolSettings().getMaxSize());
+    }
+
+    private MongoDBHandler createHandler(MongoWorkload workload) {
+        return new MongoDBHandler(workload);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+   Copyright 2026 Ericsson AB.
+   For a full list of individual contributors, please see the commit history.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.ericsson.ei.mongo;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
+
+public class MongoDBHandlerStreamTest {
+
+    private static final String DATABASE = "MongoDBHandlerStreamTest";
+    private static final String COLLECTION = "documents";
+
+    private MongoDBHandler mongoDBHandler;
+    private FindIterable<Document> findIterable;
+    private MongoCursor<Document> cursor;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        MongoClient mongoClient = mock(MongoClient.class);
+        MongoDatabase database = mock(MongoDatabase.class);
+        MongoCollection<Document> collection = mock(MongoCollection.class);
+        findIterable = mock(FindIterable.class);
+        // Real default methods, like forEachRemaining, on top of the stubbed cursor
+        cursor = mock(MongoCursor.class, withSettings().defaultAnswer(CALLS_REAL_METHODS));
+        when(mongoClient.getDatabase(DATABASE)).thenReturn(database);
+        when(database.getCollection(COLLECTION)).thenReturn(collection);
+        when(collection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.batchSize(anyInt())).thenReturn(findIterable);
+        when(findIterable.limit(anyInt())).thenReturn(findIterable);
+        when(findIterable.iterator()).thenReturn(cursor);
+        when(cursor.hasNext()).thenReturn(true, true, false);
+        when(cursor.next()).thenReturn(new Document("_id", "first"), new Document("_id", "second"));
+
+        mongoDBHandler = new MongoDBHandler();
+        mongoDBHandler.setMongoClient(mongoClient);
+        mongoDBHandler.setCursorBatchSize(100);
+    }
+
+    @Test
+    public void testDocumentsAreStreamedAndCursorClosed() {
+        List<String> ids;
+        try (Stream<JsonNode> documents = mongoDBHandler.streamJsonNodes(DATABASE, COLLECTION,
+                MongoCondition.lockNullCondition(), 0, 0)) {
+            ids = documents.map(document -> document.get("_id").textValue()).collect(Collectors.toList());
+        }
+        assertEquals(2, ids.size());
+        assertEquals("second", ids.get(1));
+        verify(findIterable).batchSize(100);
+        verify(findIterable, never()).limit(anyInt());
+        verify(cursor, atLeastOnce()).close();
+    }
+
+    @Test
+    public void testEarlyCloseClosesCursor() {
+        try (Stream<Document> documents = mongoDBHandler.streamDocumentObjects(DATABASE, COLLECTION,
+                MongoCondition.lockNullCondition(), 10, 1)) {
+            assertEquals("first", documents.findFirst().get().getString("_id"));
+        }
+        verify(findIterable).batchSize(10);
+        verify(findIterable).limit(1);
+        verify(cursor).close();
+    }
+}
@@ -0,0 +1,62 @@
+package com.ericsson.ei.mongo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.bson.Document;
+import org.junit.Test;
+
+public class MongoQueryTemplateTest {
+
+    private static final String MARKER = "%IdentifyRulesEventId%";
+    private static final String EVENT_ID = "e90daae3-bf3f-4b0a-b899-67834fd5ebd0";
+
+    @Test
+    public void testBindGivesSameFilterAsReplacingMarker() {
+        String query = "{\"$and\":[{\"_event_object.testCaseExecutions.testCaseStartedEventId\":\"" + MARKER
+                + "\"},{\"_event_object.TemplateName\":\"ARTIFACT_1\"}]}";
+        MongoQueryTemplate template = MongoQueryTemplate.compile(query, MARKER);
+        assertNotNull(template);
+        assertFalse(template.isIdEquality());
+
+        MongoBsonQuery bound = template.bind(EVENT_ID);
+        assertEquals(Document.parse(query.replace(MARKER, EVENT_ID)), bound.getFilter());
+        assertFalse(bound.isIdLookup());
+    }
+
+    @Test
+    public void testBindIsRepeatable() {
+        String query = "{\"links\":{\"$elemMatch\":{\"target\":\"" + MARKER + "\",\"type\":\"CAUSE\"}}}";
+        MongoQueryTemplate template = MongoQueryTemplate.compile(query, MARKER);
+        assertEquals(Document.parse(query.replace(MARKER, "first")), template.bind("first").getFilter());
+        assertEquals(Document.parse(query.replace(MARKER, "second")), template.bind("second").getFilter());
+    }
+
+    @Test
+    public void testIdEqualityIsDetected() {
+        MongoQueryTemplate template = MongoQueryTemplate.compile("{\"_id\": \"" + MARKER + "\"}", MARKER);
+        assertTrue(template.isIdEquality());
+
+        MongoBsonQuery bound = template.bind(EVENT_ID);
+        assertTrue(bound.isIdLookup());
+        assertEquals(new Document(MongoConstants.ID, EVENT_ID), bound.getFilter());
+    }
+
+    @Test
+    public void testValueIsBoundAsString() {
+        MongoQueryTemplate template = MongoQueryTemplate.compile("{\"_id\": \"" + MARKER + "\"}", MARKER);
+        String value = "\"}, {\"$where\": \"true";
+        assertEquals(new Document(MongoConstants.ID, value), template.bind(value).getFilter());
+    }
+
+    @Test
+    public void testQueriesThatCanNotBeCompiled() {
+        assertNull(MongoQueryTemplate.compile("{\"_id\": \"no marker\"}", MARKER));
+        assertNull(MongoQueryTemplate.compile("{\"" + MARKER + "\": \"value\"}", MARKER));
+        assertNull(MongoQueryTemplate.compile("{\"_id\": " + MARKER + "}", MARKER));
+        assertNull(MongoQueryTemplate.compile("{\"_id\": {\"$regex\": \"" + MARKER + "\", \"$options\": \"i\"}}", MARKER));
+    }
+}
@@ -15,6 +15,7 @@ package com.ericsson.ei.notifications;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -40,7 +41,9 @@ import org.springframework.util.MultiValueMap;
 import com.ericsson.ei.exception.AuthenticationException;
 import com.ericsson.ei.exception.NotificationFailureException;
 import com.ericsson.ei.jmespath.JmesPathInterface;
+import com.ericsson.ei.mongo.BulkWriteBuffer;
 import com.ericsson.ei.mongo.MongoDBHandler;
+import com.ericsson.ei.mongo.MongoWorkload;
 import com.ericsson.ei.notifications.HttpRequest.HttpRequestFactory;
 import com.ericsson.eiffelcommons.subscriptionobject.MailSubscriptionObject;
 import com.ericsson.eiffelcommons.subscriptionobject.RestPostSubscriptionObject;
@@ -66,6 +69,9 @@ public class InformSubscriberTest {
     @Mock
     MongoDBHandler mongoDBHandler;
 
+    @Mock
+    BulkWriteBuffer bulkWriteBuffer;
+
     @Mock
     JmesPathInterface jmespath;
 
@@ -116,7 +122,7 @@ public class InformSubscriberTest {
         // Should expect 4 tries to perform a HTTP request
         verify(httpRequest, times(REST_POST_RETRIES + 1)).perform();
         // Should try to save failed notification to DB
-        verify(mongoDBHandler, times(1)).insertDocument(any(), any(), any());
+        verify(bulkWriteBuffer, times(1)).addUntracked(eq(MongoWorkload.RELAXED_WRITE), any(), any(), any());
     }
 
     /**
@@ -135,7 +141,7 @@ public class InformSubscriberTest {
         // ignore notification.retry configuration.
         verify(httpRequest, times(1)).perform();
         // Should try to save failed notification to DB
-        verify(mongoDBHandler, times(1)).insertDocument(any(), any(), any());
+        verify(bulkWriteBuffer, times(1)).addUntracked(eq(MongoWorkload.RELAXED_WRITE), any(), any(), any());
     }
 
     /**
@@ -148,7 +154,7 @@ public class InformSubscriberTest {
         beforeEmailTests();
         informSubscriber.informSubscriber(aggregatedObject, mailSubscriptionNode);
         verify(emailSender, times(1)).sendEmail(mimeMessage);
-        verify(mongoDBHandler, never()).insertDocument(any(), any(), any());
+        verify(bulkWriteBuffer, never()).addUntracked(any(MongoWorkload.class), any(), any(), any());
     }
 
     /**
@@ -162,7 +168,7 @@ public class InformSubscriberTest {
         doThrow(new NotificationFailureException("")).when(emailSender).sendEmail(mimeMessage);
         informSubscriber.informSubscriber(aggregatedObject, mailSubscriptionNode);
         // Should try to save failed notification to DB
-        verify(mongoDBHandler, times(1)).insertDocument(any(), any(), any());
+        verify(bulkWriteBuffer, times(1)).addUntracked(eq(MongoWorkload.RELAXED_WRITE), any(), any(), any());
     }
 
     /**
@@ -17,15 +17,26 @@
 package com.ericsson.ei.rules;
 
 import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
 
 import org.apache.commons.io.FileUtils;
+import org.bson.Document;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.powermock.reflect.Whitebox;
 
 import com.ericsson.ei.exception.ReplacementMarkerException;
+import com.ericsson.ei.handlers.ObjectHandler;
+import com.ericsson.ei.mongo.MongoBsonQuery;
+import com.ericsson.ei.mongo.MongoQuery;
 import com.ericsson.ei.rules.RulesObject;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -56,6 +67,22 @@ public class MatchIdRulesHandlerTest {
         matchIdRulesHandler.replaceIdInRules(matchIdString, EVENT_ID);
     }
 
+    @Test
+    public void fetchObjectsByIdUsesQueryTemplateTest() throws IOException {
+        setMatchingProperty();
+        ObjectHandler objectHandler = mock(ObjectHandler.class);
+        Whitebox.setInternalState(matchIdRulesHandler, "objHandler", objectHandler);
+        when(objectHandler.findObjectsByCondition(any())).thenReturn(Collections.singletonList("{}"));
+        RulesObject ruleObject = createRulesObject(readFile(INPUT_FILE_PATH));
+
+        List<String> objects = matchIdRulesHandler.fetchObjectsById(ruleObject, EVENT_ID);
+
+        ArgumentCaptor<MongoQuery> query = ArgumentCaptor.forClass(MongoQuery.class);
+        verify(objectHandler).findObjectsByCondition(query.capture());
+        assertEquals(Document.parse(readFile(OUTPUT_FILE_PATH)), ((MongoBsonQuery) query.getValue()).getFilter());
+        assertEquals(1, objects.size());
+    }
+
     private RulesObject createRulesObject(String input) throws IOException {
         ObjectMapper objectmapper = new ObjectMapper();
         RulesObject ruleObject = new RulesObject(objectmapper.readTree(input));
@@ -17,6 +17,7 @@
 package com.ericsson.ei.rules;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 import java.io.File;
 
@@ -65,4 +66,26 @@ public class TestRulesHandler {
         result = unitUnderTest.getRulesForEvent(jsonInput);
         assertEquals(result, output);
     }
+
+    @Test
+    public void testRulesWithDifferentTypeRulesAreMatchedInOrder() throws Exception {
+        String rules = "["
+                + "{\"TemplateName\":\"first\",\"TypeRule\":\"meta.source.name\",\"Type\":\"builder\"},"
+                + "{\"TemplateName\":\"second\",\"TypeRule\":\"meta.type\",\"Type\":\"EiffelActivityStartedEvent\"},"
+                + "{\"TemplateName\":\"third\",\"TypeRule\":\"meta.type\",\"Type\":\"EiffelActivityFinishedEvent\"},"
+                + "{\"TemplateName\":\"fourth\",\"TypeRule\":\"meta.source.name\",\"Type\":\"finisher\"}"
+                + "]";
+        unitUnderTest.setParsedJson(rules);
+
+        assertEquals("first", unitUnderTest.getRulesForEvent(
+                "{\"meta\":{\"type\":\"EiffelActivityStartedEvent\",\"source\":{\"name\":\"builder\"}}}")
+                .getTemplateName());
+        assertEquals("third", unitUnderTest.getRulesForEvent(
+                "{\"meta\":{\"type\":\"EiffelActivityFinishedEvent\",\"source\":{\"name\":\"finisher\"}}}")
+                .getTemplateName());
+        assertEquals("fourth", unitUnderTest.getRulesForEvent(
+                "{\"meta\":{\"type\":\"EiffelArtifactCreatedEvent\",\"source\":{\"name\":\"finisher\"}}}")
+                .getTemplateName());
+        assertNull(unitUnderTest.getRulesForEvent("{\"meta\":{\"type\":\"EiffelArtifactCreatedEvent\"}}"));
+    }
 }
@@ -17,6 +17,7 @@
 package com.ericsson.ei.rules;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 import java.io.File;
 
@@ -27,6 +28,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
+import com.ericsson.ei.exception.InvalidRulesException;
+import com.ericsson.ei.jmespath.JmesPathInterface;
 import com.ericsson.ei.rules.RulesObject;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -73,4 +76,31 @@ public class TestRulesObject {
         assertEquals(result, expectedOutput);
     }
 
+    @Test
+    public void compileRulesTest() throws Exception {
+        String rule = "{\"TemplateName\":\"TEST\",\"TypeRule\":\"meta.type\",\"IdRule\":\"meta.id\","
+                + "\"MatchIdRules\":{\"_id\":\"%IdentifyRulesEventId%\"},"
+                + "\"MergeResolverRules\":\"{testCaseTriggeredEventId:%IdentifyRulesEventId%}\",\"StartEvent\":\"YES\"}";
+        JmesPathInterface jmesPathInterface = new JmesPathInterface();
+        unitUnderTest = RulesObject.compile(new ObjectMapper().readTree(rule), "%IdentifyRulesEventId%",
+                jmesPathInterface);
+
+        // TypeRule and IdRule, the MergeResolverRules is compiled when the id is in place
+        assertEquals(2, jmesPathInterface.getExpressionCache().getSize());
+        assertEquals("e1", unitUnderTest.getIdRuleExpression()
+                                         .search(new ObjectMapper().readTree("{\"meta\":{\"id\":\"e1\"}}"))
+                                         .textValue());
+        assertNull(unitUnderTest.getIdentifyRulesExpression());
+        assertNull(new RulesObject(unitUnderTest.getJsonRulesObject()).getIdRuleExpression());
+        assertEquals(true, unitUnderTest.isStartEventRules());
+        assertEquals("{\"_id\":\"abc\"}", unitUnderTest.getMatchIdRulesTemplate().render("abc"));
+        assertEquals("{testCaseTriggeredEventId:\"abc\"}",
+                unitUnderTest.getMergeRulesTemplate().render("\"abc\""));
+    }
+
+    @Test(expected = InvalidRulesException.class)
+    public void compileInvalidRulesTest() throws Exception {
+        String rule = "{\"TemplateName\":\"TEST\",\"TypeRule\":\"meta.type\",\"IdRule\":\"meta.[id\"}";
+        RulesObject.compile(new ObjectMapper().readTree(rule), "%IdentifyRulesEventId%", new JmesPathInterface());
+    }
 }
@@ -0,0 +1,49 @@
+/*
+   Copyright 2026 Ericsson AB.
+   For a full list of individual contributors, please see the commit history.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.ericsson.ei.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+public class VirtualThreadsTest {
+
+    @Test
+    public void testExecutorMatchesAvailability() throws Exception {
+        ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor("Test-");
+        if (!VirtualThreads.isAvailable()) {
+            assertNull(executor);
+            return;
+        }
+        assertNotNull(executor);
+        try {
+            Future<String> name = executor.submit(() -> Thread.currentThread().getName());
+            assertEquals("Test-0", name.get());
+            Future<Object> virtual = executor.submit(
+                    () -> Thread.class.getMethod("isVirtual").invoke(Thread.currentThread()));
+            assertTrue((Boolean) virtual.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
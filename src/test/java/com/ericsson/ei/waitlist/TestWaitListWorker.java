@@ -33,9 +33,13 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.ReturnedMessage;
 import org.springframework.amqp.core.TopicExchange;
 import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.connection.CorrelationData.Confirm;
 import org.springframework.amqp.rabbit.core.RabbitAdmin;
 
 import com.ericsson.ei.handlers.EventToObjectMapHandler;
@@ -47,6 +51,8 @@ import com.ericsson.ei.rules.RulesHandler;
 import com.ericsson.ei.rules.RulesObject;
 import com.ericsson.ei.test.utils.TestConfigs;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.rabbitmq.client.AMQP;
 import com.rabbitmq.client.Channel;
 import com.rabbitmq.client.Consumer;
@@ -58,6 +64,7 @@ public class TestWaitListWorker {
     private static final String EVENT_PATH = "src/test/resources/EiffelArtifactCreatedEvent.json";
     private static final String INPUT_1 = "src/test/resources/testWaitListinput1.json";
     private static final String INPUT_2 = "src/test/resources/testWaitListinput2.json";
+    private static final String CONFIRMED_ID = "e90daae3-bf3f-4b0a-b899-67834fd5ebd0";
 
     private static File qpidConfig = null;
     private static String jsonFileContent;
@@ -93,7 +100,7 @@ public class TestWaitListWorker {
         list = new ArrayList<>();
         list.add(FileUtils.readFileToString(new File(INPUT_1), "UTF-8"));
         list.add(FileUtils.readFileToString(new File(INPUT_2), "UTF-8"));
-        Mockito.when(waitListStorageHandler.getWaitList()).thenReturn(list);
+        Mockito.when(waitListStorageHandler.streamWaitList()).thenAnswer(invocation -> list.stream());
         Mockito.when(rulesHandler.getRulesForEvent(Mockito.anyString())).thenReturn(rulesObject);
         Mockito.when(jmesPathInterface.runRuleOnEvent(Mockito.anyString(), Mockito.anyString())).thenReturn(jsonNode);
     }
@@ -130,6 +137,59 @@ public class TestWaitListWorker {
         }
     }
 
+    @Test
+    public void testConfirmedEventsAreDroppedFromWaitList() {
+        waitListWorker.setConfirmTimeout(1000);
+        waitListWorker.setPublishBatchSize(100);
+        Mockito.when(eventToObjectMapHandler.isEventInEventObjectMap(Mockito.anyString())).thenReturn(false);
+        Mockito.when(rulesObject.getIdentifyRules()).thenReturn("links[].target");
+        ArrayNode ids = new ObjectMapper().createArrayNode().add("first").add("second");
+        Mockito.when(jmesPathInterface.runRuleOnEvent(Mockito.anyString(), Mockito.anyString())).thenReturn(ids);
+        Mockito.when(matchId.fetchObjectsById(Mockito.any(RulesObject.class), Mockito.anyString())).thenReturn(list);
+        Mockito.doAnswer(invocation -> {
+            CorrelationData correlationData = invocation.getArgument(1);
+            boolean ack = CONFIRMED_ID.equals(correlationData.getId());
+            correlationData.getFuture().set(new Confirm(ack, ack ? null : "rejected"));
+            return null;
+        }).when(rmqHandler).publishObjectToWaitlistQueueWithConfirm(Mockito.anyString(),
+                Mockito.any(CorrelationData.class));
+
+        waitListWorker.run();
+
+        // Each event is published once although it matches two aggregated objects
+        Mockito.verify(rmqHandler, Mockito.times(2)).publishObjectToWaitlistQueueWithConfirm(Mockito.anyString(),
+                Mockito.any(CorrelationData.class));
+        Mockito.verify(waitListStorageHandler).dropDocumentFromWaitList(list.get(0));
+        Mockito.verify(waitListStorageHandler, Mockito.never()).dropDocumentFromWaitList(list.get(1));
+    }
+
+    @Test
+    public void testReturnedEventsAreKeptInWaitList() {
+        waitListWorker.setConfirmTimeout(1000);
+        waitListWorker.setPublishBatchSize(100);
+        Mockito.when(eventToObjectMapHandler.isEventInEventObjectMap(Mockito.anyString())).thenReturn(false);
+        Mockito.when(rulesObject.getIdentifyRules()).thenReturn("links[].target");
+        ArrayNode ids = new ObjectMapper().createArrayNode().add("first");
+        Mockito.when(jmesPathInterface.runRuleOnEvent(Mockito.anyString(), Mockito.anyString())).thenReturn(ids);
+        Mockito.when(matchId.fetchObjectsById(Mockito.any(RulesObject.class), Mockito.anyString())).thenReturn(list);
+        Mockito.doAnswer(invocation -> {
+            CorrelationData correlationData = invocation.getArgument(1);
+            if (!CONFIRMED_ID.equals(correlationData.getId())) {
+                // The broker acks a mandatory message it could not route after returning it
+                correlationData.setReturned(new ReturnedMessage(new Message(new byte[0]), 312, "NO_ROUTE",
+                        "exchange", "routing key"));
+            }
+            correlationData.getFuture().set(new Confirm(true, null));
+            return null;
+        }).when(rmqHandler).publishObjectToWaitlistQueueWithConfirm(Mockito.anyString(),
+                Mockito.any(CorrelationData.class));
+
+        waitListWorker.run();
+
+        Mockito.verify(waitListStorageHandler).dropDocumentFromWaitList(list.get(0));
+        Mockito.verify(waitListStorageHandler, Mockito.never()).dropDocumentFromWaitList(list.get(1));
+    }
+
     @Test
     public void testRunIfEventExistsInEventObjectMap() {
         Mockito.when(eventToObjectMapHandler.isEventInEventObjectMap(Mockito.anyString())).thenReturn(true);
@@ -144,7 +204,7 @@ public class TestWaitListWorker {
 
     @Test
     public void testDoNotFetchDuringShutdown() {
-        Mockito.doThrow(RuntimeException.class).when(waitListStorageHandler).getWaitList();
+        Mockito.doThrow(RuntimeException.class).when(waitListStorageHandler).streamWaitList();
         try {
             waitListWorker.shutdownSignalSent();
             waitListWorker.run();